@@ -31,6 +31,9 @@ public class UserEventConsumer {
                 case "USER_UPDATED":
                     handleUserUpdated(event);
                     break;
+                case "USER_DELETED":
+                    handleUserDeleted(event);
+                    break;
                 default:
                     log.warn("Unknown user event type: {}", event.getEventType());
             }
@@ -56,6 +59,12 @@ public class UserEventConsumer {
         log.info("   Email: {}", event.getEmail());
     }
 
+    private void handleUserDeleted(UserEvent event) {
+        log.info("🗑️ NOTIFICATION: User account deleted");
+        log.info("   Name: {}", event.getUserName());
+        log.info("   Email: {}", event.getEmail());
+    }
+
     private void sendWelcomeEmail(UserEvent event) {
         log.info("📧 Sending welcome email to: {}", event.getEmail());
 
@@ -1,17 +1,27 @@
 package com.miniecommerce.orderservice.client;
 
 import com.miniecommerce.orderservice.dto.ProductDTO;
+import com.miniecommerce.orderservice.dto.StockReservationDTO;
+import com.miniecommerce.orderservice.dto.StockReservationRequest;
+import com.miniecommerce.orderservice.dto.StockUpdateRequest;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "product-service")
 public interface ProductClient {
 
+    // The only product columns order-service reads; skips description and imageUrl on batch lookups
+    String ORDER_FIELDS = "id,name,price,stock";
+
     @GetMapping("/products/{id}")
     @CircuitBreaker(name = "productService", fallbackMethod = "getProductFallback")
     @Retry(name = "productService")
@@ -22,4 +32,34 @@ public interface ProductClient {
     @Retry(name = "productService")
     ProductDTO updateStock(@PathVariable Long id, @RequestParam Integer quantity);
 
+    @GetMapping("/products")
+    @CircuitBreaker(name = "productService")
+    @Retry(name = "productService")
+    List<ProductDTO> getProductsByIds(@RequestParam("ids") List<Long> ids, @RequestParam("fields") String fields);
+
+    // Same as getProductsByIds, with the IDs in the body for sets too large for a query string
+    @PostMapping("/products/batch")
+    @CircuitBreaker(name = "productService")
+    @Retry(name = "productService")
+    List<ProductDTO> getProductsByIdsBatch(@RequestBody List<Long> ids, @RequestParam("fields") String fields);
+
+    @PutMapping("/products/stock")
+    @CircuitBreaker(name = "productService")
+    @Retry(name = "productService")
+    List<ProductDTO> updateStockBatch(@RequestBody List<StockUpdateRequest> updates);
+
+    @PostMapping("/products/reservations")
+    @CircuitBreaker(name = "productService")
+    StockReservationDTO reserveStock(@RequestBody StockReservationRequest request);
+
+    @PostMapping("/products/reservations/{reservationId}/confirm")
+    @CircuitBreaker(name = "productService")
+    @Retry(name = "productService")
+    StockReservationDTO confirmReservation(@PathVariable String reservationId);
+
+    @PostMapping("/products/reservations/{reservationId}/release")
+    @CircuitBreaker(name = "productService")
+    @Retry(name = "productService")
+    StockReservationDTO releaseReservation(@PathVariable String reservationId);
+
 }
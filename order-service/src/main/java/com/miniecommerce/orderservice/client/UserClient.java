@@ -1,11 +1,19 @@
 package com.miniecommerce.orderservice.client;
 
 import com.miniecommerce.orderservice.dto.UserDTO;
+import feign.Response;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "user-service")
 public interface UserClient {
@@ -15,4 +23,20 @@ public interface UserClient {
     @Retry(name = "userService")
     UserDTO getUserById(@PathVariable Long id);
 
+    // Conditional GET: 304 while the ETag still matches, otherwise 200 with the user.
+    // Returns the raw response so a 304 is not turned into an error (and retried).
+    @GetMapping("/users/{id}")
+    Response revalidateUser(@PathVariable Long id, @RequestHeader(HttpHeaders.IF_NONE_MATCH) String etag);
+
+    @GetMapping("/users")
+    @CircuitBreaker(name = "userService")
+    @Retry(name = "userService")
+    List<UserDTO> getUsersByIds(@RequestParam("ids") List<Long> ids);
+
+    // Same as getUsersByIds, with the IDs in the body for sets too large for a query string
+    @PostMapping("/users/batch")
+    @CircuitBreaker(name = "userService")
+    @Retry(name = "userService")
+    List<UserDTO> getUsersByIdsBatch(@RequestBody List<Long> ids);
+
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.miniecommerce.orderservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Executor used to run the user and product lookups of an order in parallel
+    @Bean(name = "lookupExecutor")
+    public Executor lookupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(20);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("order-lookup-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Executor used to confirm or release stock reservations after the order transaction ends
+    @Bean(name = "reservationExecutor")
+    public Executor reservationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(5);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("stock-reservation-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs the @Scheduled jobs; the outbox relay and the confirm retries each get a thread so a
+    // slow round of one never holds up the other (Spring's default scheduler has a single thread)
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("order-scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
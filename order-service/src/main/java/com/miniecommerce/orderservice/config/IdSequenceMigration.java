@@ -0,0 +1,37 @@
+package com.miniecommerce.orderservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Orders and order items got their ids from IDENTITY columns until they moved to pooled sequences,
+// which ddl-auto creates starting at 1. Skips each sequence past the rows already stored.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceMigration {
+
+    // Table -> sequence of its @SequenceGenerator
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders", "orders_seq",
+            "order_items", "order_items_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        // nextval only moves forward, so this is safe while other instances are inserting
+        SEQUENCES.forEach((table, sequence) -> jdbcTemplate.execute(
+                "DO $$ BEGIN "
+                        + "WHILE nextval('" + sequence + "') <= (SELECT coalesce(max(id), 0) FROM " + table + ") LOOP "
+                        + "NULL; END LOOP; END $$"));
+        log.info("Id sequences are past the existing order and order item ids");
+    }
+}
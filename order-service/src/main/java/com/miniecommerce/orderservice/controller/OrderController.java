@@ -1,5 +1,6 @@
 package com.miniecommerce.orderservice.controller;
 
+import com.miniecommerce.orderservice.dto.MultiItemOrderRequest;
 import com.miniecommerce.orderservice.dto.OrderRequest;
 import com.miniecommerce.orderservice.entity.Order;
 import com.miniecommerce.orderservice.service.OrderService;
@@ -19,15 +20,21 @@ public class OrderController {
     private final OrderService orderService;
 
     // GET /orders - Get all orders
+    // GET /orders?fields=id,status,totalPrice - Only the listed fields (also on /{id}, /user and /product)
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String fields) {
+        return fields != null
+                ? ResponseEntity.ok(orderService.getAllOrders(fields))
+                : ResponseEntity.ok(orderService.getAllOrders());
     }
 
     // GET /orders/{id} - Get order by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.getOrderById(id));
+    public ResponseEntity<?> getOrderById(@PathVariable Long id,
+                                          @RequestParam(required = false) String fields) {
+        return fields != null
+                ? ResponseEntity.ok(orderService.getOrderById(id, fields))
+                : ResponseEntity.ok(orderService.getOrderById(id));
     }
 
     // POST /orders - Create new order
@@ -37,16 +44,35 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
+    // POST /orders/cart - Create one order with several line items
+    @PostMapping("/cart")
+    public ResponseEntity<?> createMultiItemOrder(@Valid @RequestBody MultiItemOrderRequest request) {
+        Order createdOrder = orderService.createMultiItemOrder(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+    }
+
     // GET /orders/user/{userId} - Get orders by user
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
+    public ResponseEntity<?> getOrdersByUserId(@PathVariable Long userId,
+                                               @RequestParam(required = false) String fields) {
+        return fields != null
+                ? ResponseEntity.ok(orderService.getOrdersByUserId(userId, fields))
+                : ResponseEntity.ok(orderService.getOrdersByUserId(userId));
     }
 
     // GET /orders/product/{productId} - Get orders by product
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<Order>> getOrdersByProductId(@PathVariable Long productId) {
-        return ResponseEntity.ok(orderService.getOrdersByProductId(productId));
+    public ResponseEntity<?> getOrdersByProductId(@PathVariable Long productId,
+                                                  @RequestParam(required = false) String fields) {
+        return fields != null
+                ? ResponseEntity.ok(orderService.getOrdersByProductId(productId, fields))
+                : ResponseEntity.ok(orderService.getOrdersByProductId(productId));
+    }
+
+    // GET /orders/status/{status} - Get orders by status (e.g. NEEDS_REVIEW)
+    @GetMapping("/status/{status}")
+    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
+        return ResponseEntity.ok(orderService.getOrdersByStatus(status));
     }
 
     // PATCH /orders/{id}/status - Update order status
@@ -0,0 +1,15 @@
+package com.miniecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiItemLookupResult {
+    private UserDTO user;
+    private Map<Long, ProductDTO> products;
+}
@@ -0,0 +1,18 @@
+package com.miniecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+    private String reservationId;
+    private String status;
+    private LocalDateTime expiresAt;
+    private List<OrderItemRequest> items;
+}
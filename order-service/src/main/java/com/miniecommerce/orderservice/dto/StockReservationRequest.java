@@ -0,0 +1,15 @@
+package com.miniecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    private List<OrderItemRequest> items;
+    private Integer ttlSeconds;
+}
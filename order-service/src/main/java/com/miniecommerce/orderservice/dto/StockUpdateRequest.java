@@ -0,0 +1,13 @@
+package com.miniecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateRequest {
+    private Long productId;
+    private Integer quantity;
+}
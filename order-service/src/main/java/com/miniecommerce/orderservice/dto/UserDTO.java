@@ -12,4 +12,5 @@ public class UserDTO {
     private String name;
     private String email;
     private String phone;
+    private Long version;   // ETag of GET /users/{id}, used to revalidate the cached copy
 }
\ No newline at end of file
@@ -5,9 +5,14 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "orders")
@@ -16,7 +21,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (pooled-lo, 50 per round trip) let an order and its items go out as JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "User ID is required")
@@ -40,7 +47,7 @@ public class Order {
     private LocalDateTime orderDate;
 
     @Column(name = "status")
-    private String status;  // e.g., PENDING, COMPLETED, CANCELLED
+    private String status;  // e.g., PENDING, COMPLETED, FAILED, NEEDS_REVIEW, CANCELLED
 
     // Additional fields to store snapshot of user/product info
     @Column(name = "user_name")
@@ -49,6 +56,23 @@ public class Order {
     @Column(name = "product_name")
     private String productName;
 
+    // Stock hold in product-service, confirmed once the order has committed
+    @Column(name = "reservation_id", length = 36)
+    private String reservationId;
+
+    // Line items of multi-item orders; single-item orders keep using productId/quantity above,
+    // while multi-item orders store the first product there and the total quantity
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<OrderItem> items = new ArrayList<>();
+
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+    }
+
     @PrePersist
     protected void onCreate() {
         orderDate = LocalDateTime.now();
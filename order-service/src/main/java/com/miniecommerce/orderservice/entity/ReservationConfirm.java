@@ -0,0 +1,49 @@
+package com.miniecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Stock hold still to be confirmed in product-service; written in the same transaction as the
+// order and deleted once the confirm succeeds, so a committed order always gets its confirm
+@Entity
+@Table(name = "reservation_confirms", indexes = {
+        @Index(name = "uk_reservation_confirms_reservation_id", columnList = "reservation_id", unique = true),
+        @Index(name = "idx_reservation_confirms_next_attempt_at", columnList = "next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationConfirm {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reservation_id", nullable = false, length = 36)
+    private String reservationId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Local deadline for the product-service hold; retries stop here (rows from before this
+    // column fall back to created_at plus the hold TTL)
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -27,6 +28,7 @@ public class OrderEvent implements Serializable {
     private Double totalPrice;
     private String status;
     private LocalDateTime timestamp;
+    private List<OrderItemEvent> items;  // Set for multi-item orders only
 
     public static OrderEvent createOrderCreatedEvent(Long orderId, Long userId, String userName, String userEmail,
                                                      Long productId, String productName,
@@ -0,0 +1,30 @@
+package com.miniecommerce.orderservice.event;
+
+import com.miniecommerce.orderservice.entity.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemEvent implements Serializable {
+
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private Double unitPrice;
+    private Double lineTotal;
+
+    public static OrderItemEvent fromOrderItem(OrderItem item) {
+        return new OrderItemEvent(
+                item.getProductId(),
+                item.getProductName(),
+                item.getQuantity(),
+                item.getUnitPrice(),
+                item.getLineTotal()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.miniecommerce.orderservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductSnapshot implements Serializable {
+    private Long productId;
+    private String name;
+    private Double price;
+    private Integer stock;
+    private Long version;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,22 @@
+package com.miniecommerce.orderservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserEvent implements Serializable {
+    private String eventId;
+    private String eventType;  // USER_CREATED, USER_UPDATED, USER_DELETED
+    private Long userId;
+    private String userName;
+    private String email;
+    private LocalDateTime timestamp;
+}
@@ -1,38 +1,43 @@
 package com.miniecommerce.orderservice.kafka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.orderservice.entity.OrderOutbox;
 import com.miniecommerce.orderservice.event.OrderEvent;
+import com.miniecommerce.orderservice.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.CompletableFuture;
-
+// Events are stored in the order_outbox table within the caller's transaction.
+// OrderOutboxRelay publishes them to Kafka once the transaction has committed.
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventProducer {
 
-    private static final String TOPIC = "order-events";
-
-    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final ObjectMapper objectMapper;
 
+    @Transactional
     public void sendOrderEvent(OrderEvent event) {
-        log.info("Publishing order event: {} for order ID: {}", event.getEventType(), event.getOrderId());
+        log.info("Queueing order event: {} for order ID: {}", event.getEventType(), event.getOrderId());
 
-        CompletableFuture<SendResult<String, OrderEvent>> future =
-                kafkaTemplate.send(TOPIC, event.getOrderId().toString(), event);
+        OrderOutbox outbox = new OrderOutbox();
+        outbox.setEventId(event.getEventId());
+        outbox.setEventType(event.getEventType());
+        outbox.setAggregateId(event.getOrderId().toString());
+        outbox.setPayload(toJson(event));
+
+        orderOutboxRepository.save(outbox);
+    }
 
-        future.whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info("✅ Order event published successfully: {} - Partition: {}, Offset: {}",
-                        event.getEventType(),
-                        result.getRecordMetadata().partition(),
-                        result.getRecordMetadata().offset());
-            } else {
-                log.error("❌ Failed to publish order event: {}", ex.getMessage());
-            }
-        });
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event " + event.getEventId(), e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package com.miniecommerce.orderservice.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.orderservice.entity.OrderOutbox;
+import com.miniecommerce.orderservice.event.OrderEvent;
+import com.miniecommerce.orderservice.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains order_outbox in batches and publishes the events to Kafka
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+
+    private static final String TOPIC = "order-events";
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer batchTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong deadLetteredEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    public OrderOutboxRelay(OrderOutboxRepository orderOutboxRepository,
+                            KafkaTemplate<String, OrderEvent> kafkaTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.outbox.relay.batch-size:500}") int batchSize,
+                            @Value("${order.outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        this.publishedCounter = Counter.builder("order.outbox.published")
+                .description("Order events relayed from the outbox to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.outbox.failed")
+                .description("Order events that failed to publish and stay in the outbox")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("order.outbox.dead-lettered")
+                .description("Order events that can never be published and were set aside in the outbox")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("order.outbox.batch")
+                .description("Time to lock, publish and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Order events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.dead", deadLetteredEvents, AtomicLong::get)
+                .description("Dead-lettered order events kept in the outbox for inspection")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.lag.seconds", oldestPendingAgeMs, age -> age.get() / 1000.0)
+                .description("Age of the oldest order event waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval-ms:200}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("❌ Order outbox relay failed: {}", e.getMessage(), e);
+        } finally {
+            updateBacklogMetrics();
+        }
+    }
+
+    // Runs in its own transaction so the row locks are held until the batch is deleted
+    private int relayBatch() {
+        List<OrderOutbox> batch = orderOutboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // A row whose payload cannot be read will never publish; it is set aside so it does not
+        // hold back (or force re-sending of) the rest of the batch
+        List<OrderOutbox> sent = new ArrayList<>(batch.size());
+        List<CompletableFuture<SendResult<String, OrderEvent>>> futures = new ArrayList<>(batch.size());
+        List<OrderOutbox> dead = new ArrayList<>();
+        for (OrderOutbox outbox : batch) {
+            OrderEvent event;
+            try {
+                event = objectMapper.readValue(outbox.getPayload(), OrderEvent.class);
+            } catch (Exception e) {
+                log.error("❌ Dead-lettering order event {} ({}): {}",
+                        outbox.getEventId(), outbox.getEventType(), e.getMessage());
+                outbox.setFailedAt(LocalDateTime.now());
+                outbox.setLastError(truncate(e.getMessage()));
+                dead.add(outbox);
+                continue;
+            }
+            futures.add(sendSafely(outbox, event));
+            sent.add(outbox);
+        }
+        kafkaTemplate.flush();
+
+        List<OrderOutbox> published = new ArrayList<>(sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                published.add(sent.get(i));
+            } catch (Exception e) {
+                log.error("❌ Failed to publish order event {}: {}", sent.get(i).getEventId(), e.getMessage());
+            }
+        }
+
+        orderOutboxRepository.deleteAllInBatch(published);
+        orderOutboxRepository.saveAll(dead);
+        publishedCounter.increment(published.size());
+        failedCounter.increment(sent.size() - published.size());
+        deadLetteredCounter.increment(dead.size());
+
+        log.debug("Relayed {} of {} order events", published.size(), batch.size());
+        // A send failure stops the drain loop until the next scheduled run
+        return published.size() == sent.size() ? batch.size() : 0;
+    }
+
+    // A send that throws right away (e.g. no broker metadata) fails like an async send and is retried
+    private CompletableFuture<SendResult<String, OrderEvent>> sendSafely(OrderOutbox outbox, OrderEvent event) {
+        try {
+            return kafkaTemplate.send(TOPIC, outbox.getAggregateId(), event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    private void updateBacklogMetrics() {
+        try {
+            pendingEvents.set(orderOutboxRepository.countByFailedAtIsNull());
+            deadLetteredEvents.set(orderOutboxRepository.countByFailedAtIsNotNull());
+            LocalDateTime oldest = orderOutboxRepository.findOldestCreatedAt();
+            oldestPendingAgeMs.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+        } catch (Exception e) {
+            log.warn("Could not refresh order outbox metrics: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.miniecommerce.orderservice.kafka;
+
+import com.miniecommerce.orderservice.event.ProductSnapshot;
+import com.miniecommerce.orderservice.service.ProductCatalogReplica;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductStateConsumer implements ConsumerSeekAware {
+
+    private static final String LISTENER_ID = "product-state-replica";
+
+    private final ProductCatalogReplica productCatalogReplica;
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "product-state",
+            // One stable group per instance (not per start), so restarts don't leave stale groups behind
+            groupId = "order-service-product-replica-${order.kafka.instance-id:${spring.cloud.client.hostname}-${server.port}}",
+            containerFactory = "productSnapshotKafkaListenerContainerFactory"
+    )
+    public void consumeSnapshot(ConsumerRecord<String, ProductSnapshot> record, Consumer<?, ?> consumer) {
+        try {
+            if (record.value() == null) {
+                // Tombstone: product was deleted
+                productCatalogReplica.remove(Long.valueOf(record.key()));
+            } else {
+                productCatalogReplica.apply(record.value());
+            }
+        } catch (Exception e) {
+            log.error("❌ Error applying product snapshot for key {}: {}", record.key(), e.getMessage(), e);
+        }
+
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        consumer.currentLag(partition).ifPresent(lag -> productCatalogReplica.updateLag(record.partition(), lag));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        productCatalogReplica.assignPartitions(assignments.keySet().stream().map(TopicPartition::partition).toList());
+        // The replica lives in memory, so it always replays from the start whatever the group committed
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        productCatalogReplica.revokePartitions(partitions.stream().map(TopicPartition::partition).toList());
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        productCatalogReplica.markCaughtUp();
+    }
+}
@@ -0,0 +1,42 @@
+package com.miniecommerce.orderservice.kafka;
+
+import com.miniecommerce.orderservice.event.UserEvent;
+import com.miniecommerce.orderservice.service.UserCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserEventConsumer {
+
+    private final UserCacheService userCacheService;
+
+    @KafkaListener(
+            topics = "user-events",
+            // Every instance needs every event; one stable group per instance, not one per start
+            groupId = "order-service-user-cache-${order.kafka.instance-id:${spring.cloud.client.hostname}-${server.port}}",
+            containerFactory = "userEventKafkaListenerContainerFactory"
+    )
+    public void consumeUserEvent(UserEvent event, Acknowledgment acknowledgment) {
+        try {
+            log.debug("Received user event: {} for user ID: {}", event.getEventType(), event.getUserId());
+
+            switch (event.getEventType()) {
+                case "USER_UPDATED":
+                case "USER_DELETED":
+                    userCacheService.evict(event.getUserId());
+                    break;
+                default:
+                    break;
+            }
+
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            log.error("❌ Error processing user event: {}", e.getMessage(), e);
+        }
+    }
+}
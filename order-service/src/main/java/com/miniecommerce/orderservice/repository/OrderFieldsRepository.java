@@ -0,0 +1,18 @@
+package com.miniecommerce.orderservice.repository;
+
+import com.miniecommerce.orderservice.entity.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+// Sparse fieldsets: selects only the requested columns instead of whole orders with their items
+public interface OrderFieldsRepository {
+
+    List<String> SELECTABLE_FIELDS = List.of(
+            "id", "userId", "productId", "quantity", "totalPrice", "orderDate", "status",
+            "userName", "productName", "reservationId");
+
+    // One map per row, keyed by field name in the requested order
+    List<Map<String, Object>> findFields(Specification<Order> spec, List<String> fields);
+}
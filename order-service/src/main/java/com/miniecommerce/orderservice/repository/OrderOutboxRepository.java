@@ -0,0 +1,27 @@
+package com.miniecommerce.orderservice.repository;
+
+import com.miniecommerce.orderservice.entity.OrderOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    // Lock the oldest pending events; rows locked by another relay instance or dead-lettered are skipped
+    @Query(value = "SELECT * FROM order_outbox WHERE failed_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OrderOutbox> lockNextBatch(@Param("limit") int limit);
+
+    long countByFailedAtIsNull();
+
+    long countByFailedAtIsNotNull();
+
+    // Creation time of the oldest pending event (null when the outbox is empty)
+    @Query("SELECT MIN(o.createdAt) FROM OrderOutbox o WHERE o.failedAt IS NULL")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -2,19 +2,27 @@ package com.miniecommerce.orderservice.repository;
 
 import com.miniecommerce.orderservice.entity.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderFieldsRepository {
 
     // Find orders by user
     List<Order> findByUserId(Long userId);
 
-    // Find orders by product
-    List<Order> findByProductId(Long productId);
+    // Find orders by product, including multi-item orders that contain it
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN o.items i WHERE o.productId = :productId OR i.productId = :productId")
+    List<Order> findByProductId(@Param("productId") Long productId);
 
     // Find orders by status
     List<Order> findByStatus(String status);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.reservationId = :reservationId")
+    int updateStatusByReservationId(@Param("reservationId") String reservationId, @Param("status") String status);
 }
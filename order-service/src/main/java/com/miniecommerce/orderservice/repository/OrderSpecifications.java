@@ -0,0 +1,30 @@
+package com.miniecommerce.orderservice.repository;
+
+import com.miniecommerce.orderservice.entity.Order;
+import com.miniecommerce.orderservice.entity.OrderItem;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Order> forUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    // Same rule as OrderRepository.findByProductId: the order's own product or any of its line items
+    public static Specification<Order> containsProduct(Long productId) {
+        return (root, query, cb) -> {
+            query.distinct(true);
+            Join<Order, OrderItem> items = root.join("items", JoinType.LEFT);
+            return cb.or(cb.equal(root.get("productId"), productId), cb.equal(items.get("productId"), productId));
+        };
+    }
+}
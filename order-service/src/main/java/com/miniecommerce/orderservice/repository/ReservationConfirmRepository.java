@@ -0,0 +1,24 @@
+package com.miniecommerce.orderservice.repository;
+
+import com.miniecommerce.orderservice.entity.ReservationConfirm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReservationConfirmRepository extends JpaRepository<ReservationConfirm, Long> {
+
+    // Lock the confirms due for a retry so they can be claimed; rows locked by another instance are skipped
+    @Query(value = "SELECT * FROM reservation_confirms WHERE next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ReservationConfirm> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM ReservationConfirm r WHERE r.reservationId = :reservationId")
+    int deleteByReservationId(@Param("reservationId") String reservationId);
+}
@@ -0,0 +1,214 @@
+package com.miniecommerce.orderservice.service;
+
+import com.miniecommerce.orderservice.client.ProductClient;
+import com.miniecommerce.orderservice.dto.MultiItemLookupResult;
+import com.miniecommerce.orderservice.dto.OrderLookupResult;
+import com.miniecommerce.orderservice.dto.ProductDTO;
+import com.miniecommerce.orderservice.dto.UserDTO;
+import com.miniecommerce.orderservice.exception.ResourceNotFoundException;
+import com.miniecommerce.orderservice.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class OrderLookupService {
+
+    // Above this many IDs the batch lookup sends them in a POST body instead of the URL
+    private static final int MAX_QUERY_STRING_IDS = 100;
+
+    private final UserCacheService userCacheService;
+    private final ProductClient productClient;
+    private final ProductCatalogReplica productCatalogReplica;
+    private final Executor lookupExecutor;
+
+    private final Timer userLookupTimer;
+    private final Timer productLookupTimer;
+    private final Timer combinedLookupTimer;
+
+    public OrderLookupService(UserCacheService userCacheService,
+                              ProductClient productClient,
+                              ProductCatalogReplica productCatalogReplica,
+                              @Qualifier("lookupExecutor") Executor lookupExecutor,
+                              MeterRegistry meterRegistry) {
+        this.userCacheService = userCacheService;
+        this.productClient = productClient;
+        this.productCatalogReplica = productCatalogReplica;
+        this.lookupExecutor = lookupExecutor;
+
+        this.userLookupTimer = Timer.builder("order.lookup")
+                .description("Time spent resolving order dependencies")
+                .tag("target", "user")
+                .register(meterRegistry);
+        this.productLookupTimer = Timer.builder("order.lookup")
+                .description("Time spent resolving order dependencies")
+                .tag("target", "product")
+                .register(meterRegistry);
+        this.combinedLookupTimer = Timer.builder("order.lookup")
+                .description("Time spent resolving order dependencies")
+                .tag("target", "combined")
+                .register(meterRegistry);
+    }
+
+    // Fetch user and product in parallel; user errors win over product errors as before
+    public OrderLookupResult lookup(Long userId, Long productId) {
+        Timer.Sample combined = Timer.start();
+
+        CompletableFuture<UserDTO> userFuture =
+                submit(() -> userLookupTimer.record(() -> fetchUser(userId)));
+        CompletableFuture<ProductDTO> productFuture =
+                submit(() -> productLookupTimer.record(() -> fetchProduct(productId)));
+
+        try {
+            UserDTO user = join(userFuture);
+            ProductDTO product = join(productFuture);
+            return new OrderLookupResult(user, product);
+        } catch (RuntimeException e) {
+            productFuture.cancel(true);
+            throw e;
+        } finally {
+            combined.stop(combinedLookupTimer);
+        }
+    }
+
+    // Fetch the user and all products of a multi-item order in parallel, products in one batched call
+    public MultiItemLookupResult lookupMany(Long userId, Collection<Long> productIds) {
+        Timer.Sample combined = Timer.start();
+
+        CompletableFuture<UserDTO> userFuture =
+                submit(() -> userLookupTimer.record(() -> fetchUser(userId)));
+        CompletableFuture<Map<Long, ProductDTO>> productsFuture =
+                submit(() -> productLookupTimer.record(() -> fetchProducts(productIds)));
+
+        try {
+            UserDTO user = join(userFuture);
+            Map<Long, ProductDTO> products = join(productsFuture);
+            return new MultiItemLookupResult(user, products);
+        } catch (RuntimeException e) {
+            productsFuture.cancel(true);
+            throw e;
+        } finally {
+            combined.stop(combinedLookupTimer);
+        }
+    }
+
+    private UserDTO fetchUser(Long userId) {
+        try {
+            UserDTO user = userCacheService.getUserById(userId);
+            log.info("User found: {}", user.getName());
+
+            // Check if we got fallback data
+            if ("Service Unavailable".equals(user.getName())) {
+                throw new ServiceCommunicationException("User Service",
+                        "User service is currently unavailable");
+            }
+            return user;
+        } catch (feign.FeignException.NotFound e) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        } catch (Exception e) {
+            log.error("Error fetching user: {}", e.getMessage());
+            throw new ServiceCommunicationException("User Service", e.getMessage());
+        }
+    }
+
+    private ProductDTO fetchProduct(Long productId) {
+        // Serve from the local replica when it is warm; stock is re-checked by the reservation anyway
+        Optional<ProductDTO> replicated = productCatalogReplica.findProduct(productId);
+        if (replicated.isPresent()) {
+            return replicated.get();
+        }
+
+        try {
+            ProductDTO product = productClient.getProductById(productId);
+            log.info("Product found: {}", product.getName());
+
+            // Check if we got fallback data
+            if ("Product Unavailable".equals(product.getName())) {
+                throw new ServiceCommunicationException("Product Service",
+                        "Product service is currently unavailable");
+            }
+            return product;
+        } catch (feign.FeignException.NotFound e) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        } catch (Exception e) {
+            log.error("Error fetching product: {}", e.getMessage());
+            throw new ServiceCommunicationException("Product Service", e.getMessage());
+        }
+    }
+
+    private Map<Long, ProductDTO> fetchProducts(Collection<Long> productIds) {
+        Map<Long, ProductDTO> products = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long productId : productIds) {
+            Optional<ProductDTO> replicated = productCatalogReplica.findProduct(productId);
+            if (replicated.isPresent()) {
+                products.put(productId, replicated.get());
+            } else {
+                missing.add(productId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                List<ProductDTO> fetched = missing.size() > MAX_QUERY_STRING_IDS
+                        ? productClient.getProductsByIdsBatch(missing, ProductClient.ORDER_FIELDS)
+                        : productClient.getProductsByIds(missing, ProductClient.ORDER_FIELDS);
+                for (ProductDTO product : fetched) {
+                    products.put(product.getId(), product);
+                }
+            } catch (Exception e) {
+                log.error("Error fetching products: {}", e.getMessage());
+                throw new ServiceCommunicationException("Product Service", e.getMessage());
+            }
+        }
+
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        }
+        return products;
+    }
+
+    // A saturated lookup pool falls back to the request thread instead of failing the order
+    private <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        try {
+            return CompletableFuture.supplyAsync(lookup, lookupExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Lookup executor is full; running the lookup on the request thread");
+            try {
+                return CompletableFuture.completedFuture(lookup.get());
+            } catch (RuntimeException failure) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+    }
+
+    // Unwrap the CompletionException so callers see the original exception type
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,26 +1,41 @@
 package com.miniecommerce.orderservice.service;
 
-import com.miniecommerce.orderservice.client.ProductClient;
-import com.miniecommerce.orderservice.client.UserClient;
+import com.miniecommerce.orderservice.dto.MultiItemLookupResult;
+import com.miniecommerce.orderservice.dto.MultiItemOrderRequest;
+import com.miniecommerce.orderservice.dto.OrderItemRequest;
+import com.miniecommerce.orderservice.dto.OrderLookupResult;
 import com.miniecommerce.orderservice.dto.OrderRequest;
 import com.miniecommerce.orderservice.dto.ProductDTO;
 import com.miniecommerce.orderservice.dto.UserDTO;
 import com.miniecommerce.orderservice.entity.Order;
+import com.miniecommerce.orderservice.entity.OrderItem;
 import com.miniecommerce.orderservice.event.OrderEvent;
+import com.miniecommerce.orderservice.event.OrderItemEvent;
 import com.miniecommerce.orderservice.exception.BadRequestException;
 import com.miniecommerce.orderservice.exception.ResourceNotFoundException;
 import com.miniecommerce.orderservice.exception.ServiceCommunicationException;
 import com.miniecommerce.orderservice.kafka.OrderEventProducer;
+import com.miniecommerce.orderservice.repository.OrderFieldsRepository;
 import com.miniecommerce.orderservice.repository.OrderRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.miniecommerce.orderservice.repository.OrderSpecifications.containsProduct;
+import static com.miniecommerce.orderservice.repository.OrderSpecifications.forUser;
+import static com.miniecommerce.orderservice.repository.OrderSpecifications.hasId;
 
 @Service
 @RequiredArgsConstructor
@@ -28,9 +43,11 @@ import java.util.List;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final UserClient userClient;
-    private final ProductClient productClient;
     private final OrderEventProducer orderEventProducer;
+    private final OrderLookupService orderLookupService;
+    private final UserCacheService userCacheService;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate transactionTemplate;
 
     @RateLimiter(name = "orderService")
     public List<Order> getAllOrders() {
@@ -38,54 +55,52 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
+    // Sparse fieldsets (?fields=id,status,totalPrice): only those columns are read and serialized
+
+    @RateLimiter(name = "orderService")
+    public List<Map<String, Object>> getAllOrders(String fields) {
+        log.info("Fetching all orders (fields: {})", fields);
+        return orderRepository.findFields(Specification.where(null), parseFields(fields));
+    }
+
+    public Map<String, Object> getOrderById(Long id, String fields) {
+        log.info("Fetching order with id: {} (fields: {})", id, fields);
+        return orderRepository.findFields(hasId(id), parseFields(fields)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
+    }
+
+    @CircuitBreaker(name = "userService")
+    @Retry(name = "userService")
+    public List<Map<String, Object>> getOrdersByUserId(Long userId, String fields) {
+        log.info("Fetching orders for user: {} (fields: {})", userId, fields);
+        validateUser(userId);
+        return orderRepository.findFields(forUser(userId), parseFields(fields));
+    }
+
+    public List<Map<String, Object>> getOrdersByProductId(Long productId, String fields) {
+        log.info("Fetching orders for product: {} (fields: {})", productId, fields);
+        return orderRepository.findFields(containsProduct(productId), parseFields(fields));
+    }
+
     public Order getOrderById(Long id) {
         log.info("Fetching order with id: {}", id);
         return orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
     }
 
-    @Transactional
+    // The PENDING order commits first; the reservation and COMPLETED status then commit together, or
+    // roll back and the order is marked FAILED in a transaction of its own
     @CircuitBreaker(name = "orderService")
     @RateLimiter(name = "orderService")
     public Order createOrder(OrderRequest request) {
         log.info("Creating order for user: {} and product: {}",
                 request.getUserId(), request.getProductId());
 
-        // 1. Fetch user details with circuit breaker
-        UserDTO user;
-        try {
-            user = userClient.getUserById(request.getUserId());
-            log.info("User found: {}", user.getName());
-
-            // Check if we got fallback data
-            if ("Service Unavailable".equals(user.getName())) {
-                throw new ServiceCommunicationException("User Service",
-                        "User service is currently unavailable");
-            }
-        } catch (feign.FeignException.NotFound e) {
-            throw new ResourceNotFoundException("User", "id", request.getUserId());
-        } catch (Exception e) {
-            log.error("Error fetching user: {}", e.getMessage());
-            throw new ServiceCommunicationException("User Service", e.getMessage());
-        }
-
-        // 2. Fetch product details with circuit breaker
-        ProductDTO product;
-        try {
-            product = productClient.getProductById(request.getProductId());
-            log.info("Product found: {}", product.getName());
-
-            // Check if we got fallback data
-            if ("Product Unavailable".equals(product.getName())) {
-                throw new ServiceCommunicationException("Product Service",
-                        "Product service is currently unavailable");
-            }
-        } catch (feign.FeignException.NotFound e) {
-            throw new ResourceNotFoundException("Product", "id", request.getProductId());
-        } catch (Exception e) {
-            log.error("Error fetching product: {}", e.getMessage());
-            throw new ServiceCommunicationException("Product Service", e.getMessage());
-        }
+        // 1-2. Fetch user and product details concurrently with circuit breakers
+        OrderLookupResult lookup = orderLookupService.lookup(request.getUserId(), request.getProductId());
+        UserDTO user = lookup.getUser();
+        ProductDTO product = lookup.getProduct();
 
         // 3. Validate stock
         if (product.getStock() < request.getQuantity()) {
@@ -108,34 +123,13 @@ public class OrderService {
         order.setProductName(product.getName());
         order.setStatus("PENDING");
 
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created with id: {}", savedOrder.getId());
-
-        // PUBLISH ORDER_CREATED EVENT
-        orderEventProducer.sendOrderEvent(
-                OrderEvent.createOrderCreatedEvent(
-                        savedOrder.getId(),
-                        user.getId(),
-                        user.getName(),
-                        user.getEmail(),
-                        product.getId(),
-                        product.getName(),
-                        request.getQuantity(),
-                        totalPrice
-                )
-        );
-
-        // 6. Update stock with circuit breaker
-        try {
-            productClient.updateStock(product.getId(), -request.getQuantity());
-            savedOrder.setStatus("COMPLETED");
-            orderRepository.save(savedOrder);
-            log.info("Product stock updated successfully");
+        Order savedOrder = transactionTemplate.execute(status -> {
+            Order created = orderRepository.save(order);
 
-            // PUBLISH ORDER_COMPLETED EVENT
+            // PUBLISH ORDER_CREATED EVENT
             orderEventProducer.sendOrderEvent(
-                    OrderEvent.createOrderCompletedEvent(
-                            savedOrder.getId(),
+                    OrderEvent.createOrderCreatedEvent(
+                            created.getId(),
                             user.getId(),
                             user.getName(),
                             user.getEmail(),
@@ -145,30 +139,170 @@ public class OrderService {
                             totalPrice
                     )
             );
+            return created;
+        });
+        log.info("Order created with id: {}", savedOrder.getId());
+
+        // 6. Hold stock; the hold is confirmed after commit and released on rollback
+        try {
+            return transactionTemplate.execute(status -> {
+                Order completed = orderRepository.findById(savedOrder.getId()).orElseThrow();
+                completed.setReservationId(stockReservationService.reserve(
+                        List.of(new OrderItemRequest(product.getId(), request.getQuantity()))));
+                completed.setStatus("COMPLETED");
+                orderRepository.save(completed);
+                log.info("Product stock reserved successfully");
+
+                // PUBLISH ORDER_COMPLETED EVENT
+                orderEventProducer.sendOrderEvent(
+                        OrderEvent.createOrderCompletedEvent(
+                                completed.getId(),
+                                user.getId(),
+                                user.getName(),
+                                user.getEmail(),
+                                product.getId(),
+                                product.getName(),
+                                request.getQuantity(),
+                                totalPrice
+                        )
+                );
+                return completed;
+            });
         } catch (Exception e) {
-            log.error("Failed to update product stock: {}", e.getMessage());
-            savedOrder.setStatus("FAILED");
-            orderRepository.save(savedOrder);
+            throw markFailed(savedOrder.getId(), e);
+        }
+    }
 
-            // PUBLISH ORDER_FAILED EVENT
-            orderEventProducer.sendOrderEvent(
-                    OrderEvent.createOrderFailedEvent(savedOrder.getId(), e.getMessage())
-            );
+    @CircuitBreaker(name = "orderService")
+    @RateLimiter(name = "orderService")
+    public Order createMultiItemOrder(MultiItemOrderRequest request) {
+        // Merge duplicate lines so every product is looked up and reserved once
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        log.info("Creating multi-item order for user: {} with {} products",
+                request.getUserId(), quantities.size());
+
+        // 1. Fetch user and all products concurrently (products in one batched call)
+        MultiItemLookupResult lookup = orderLookupService.lookupMany(request.getUserId(), quantities.keySet());
+        UserDTO user = lookup.getUser();
+        Map<Long, ProductDTO> products = lookup.getProducts();
+
+        // 2. Validate stock and build the order lines
+        Order order = new Order();
+        double totalPrice = 0;
+        int totalQuantity = 0;
+
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            ProductDTO product = products.get(line.getKey());
+            int quantity = line.getValue();
+
+            if (product.getStock() < quantity) {
+                throw new BadRequestException(
+                        String.format("Insufficient stock for '%s'. Available: %d, Requested: %d",
+                                product.getName(), product.getStock(), quantity)
+                );
+            }
+
+            OrderItem item = new OrderItem();
+            item.setProductId(product.getId());
+            item.setProductName(product.getName());
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.setLineTotal(product.getPrice() * quantity);
+            order.addItem(item);
+
+            totalPrice += item.getLineTotal();
+            totalQuantity += quantity;
+        }
+
+        // 3. Create order; the single-product columns hold the first line and the totals
+        OrderItem firstItem = order.getItems().get(0);
+        String summaryName = order.getItems().size() == 1
+                ? firstItem.getProductName()
+                : String.format("%s + %d more", firstItem.getProductName(), order.getItems().size() - 1);
+
+        order.setUserId(user.getId());
+        order.setProductId(firstItem.getProductId());
+        order.setQuantity(totalQuantity);
+        order.setTotalPrice(totalPrice);
+        order.setUserName(user.getName());
+        order.setProductName(summaryName);
+        order.setStatus("PENDING");
+
+        double orderTotal = totalPrice;
+        int orderQuantity = totalQuantity;
+        List<OrderItemEvent> itemEvents = new ArrayList<>();
+        Order savedOrder = transactionTemplate.execute(status -> {
+            Order created = orderRepository.save(order);
+            created.getItems().stream().map(OrderItemEvent::fromOrderItem).forEach(itemEvents::add);
 
-            throw new ServiceCommunicationException("Product Service",
-                    "Failed to update stock. Order marked as FAILED: " + e.getMessage());
+            // PUBLISH ORDER_CREATED EVENT
+            OrderEvent createdEvent = OrderEvent.createOrderCreatedEvent(
+                    created.getId(), user.getId(), user.getName(), user.getEmail(),
+                    firstItem.getProductId(), summaryName, orderQuantity, orderTotal);
+            createdEvent.setItems(itemEvents);
+            orderEventProducer.sendOrderEvent(createdEvent);
+            return created;
+        });
+        log.info("Multi-item order created with id: {}", savedOrder.getId());
+
+        // 4. Hold stock for every line in one call; confirmed after commit, released on rollback
+        List<OrderItemRequest> reservationItems = quantities.entrySet().stream()
+                .map(line -> new OrderItemRequest(line.getKey(), line.getValue()))
+                .toList();
+        try {
+            return transactionTemplate.execute(status -> {
+                Order completed = orderRepository.findById(savedOrder.getId()).orElseThrow();
+                completed.setReservationId(stockReservationService.reserve(reservationItems));
+                completed.setStatus("COMPLETED");
+                orderRepository.save(completed);
+                log.info("Product stock reserved successfully for {} products", reservationItems.size());
+
+                // PUBLISH ORDER_COMPLETED EVENT
+                OrderEvent completedEvent = OrderEvent.createOrderCompletedEvent(
+                        completed.getId(), user.getId(), user.getName(), user.getEmail(),
+                        firstItem.getProductId(), summaryName, orderQuantity, orderTotal);
+                completedEvent.setItems(itemEvents);
+                orderEventProducer.sendOrderEvent(completedEvent);
+                return completed;
+            });
+        } catch (Exception e) {
+            throw markFailed(savedOrder.getId(), e);
         }
+    }
 
-        return savedOrder;
+    // The reservation transaction has rolled back (releasing its hold), so the FAILED status and
+    // its ORDER_FAILED event are committed on their own
+    private ServiceCommunicationException markFailed(Long orderId, Exception cause) {
+        log.error("Failed to update product stock: {}", cause.getMessage());
+        transactionTemplate.executeWithoutResult(status -> {
+            Order failed = orderRepository.findById(orderId).orElseThrow();
+            failed.setStatus("FAILED");
+            orderRepository.save(failed);
+
+            // PUBLISH ORDER_FAILED EVENT
+            orderEventProducer.sendOrderEvent(
+                    OrderEvent.createOrderFailedEvent(orderId, cause.getMessage())
+            );
+        });
+        return new ServiceCommunicationException("Product Service",
+                "Failed to update stock. Order marked as FAILED: " + cause.getMessage());
     }
 
     @CircuitBreaker(name = "userService")
     @Retry(name = "userService")
     public List<Order> getOrdersByUserId(Long userId) {
         log.info("Fetching orders for user: {}", userId);
+        validateUser(userId);
+        return orderRepository.findByUserId(userId);
+    }
 
+    private void validateUser(Long userId) {
         try {
-            UserDTO user = userClient.getUserById(userId);
+            UserDTO user = userCacheService.getUserById(userId);
             if ("Service Unavailable".equals(user.getName())) {
                 log.warn("User service unavailable, returning orders without validation");
             }
@@ -177,8 +311,6 @@ public class OrderService {
         } catch (Exception e) {
             log.warn("Could not validate user existence, proceeding anyway: {}", e.getMessage());
         }
-
-        return orderRepository.findByUserId(userId);
     }
 
     public List<Order> getOrdersByProductId(Long productId) {
@@ -186,6 +318,11 @@ public class OrderService {
         return orderRepository.findByProductId(productId);
     }
 
+    public List<Order> getOrdersByStatus(String status) {
+        log.info("Fetching orders with status: {}", status);
+        return orderRepository.findByStatus(status);
+    }
+
     public Order updateOrderStatus(Long id, String status) {
         log.info("Updating order status for id: {} to: {}", id, status);
         Order order = getOrderById(id);
@@ -195,6 +332,24 @@ public class OrderService {
         return updated;
     }
 
+    // id is always returned so rows can be told apart
+    private List<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!OrderFieldsRepository.SELECTABLE_FIELDS.contains(trimmed)) {
+                throw new BadRequestException("Unknown field '" + trimmed + "'; allowed fields are "
+                        + OrderFieldsRepository.SELECTABLE_FIELDS);
+            }
+            selected.add(trimmed);
+        }
+        return new ArrayList<>(selected);
+    }
+
     public void deleteOrder(Long id) {
         log.info("Deleting order with id: {}", id);
         Order order = getOrderById(id);
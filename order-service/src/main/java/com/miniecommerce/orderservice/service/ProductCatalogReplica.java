@@ -0,0 +1,112 @@
+package com.miniecommerce.orderservice.service;
+
+import com.miniecommerce.orderservice.dto.ProductDTO;
+import com.miniecommerce.orderservice.event.ProductSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of the product catalog, rebuilt from the compacted product-state topic
+@Service
+@Slf4j
+public class ProductCatalogReplica {
+
+    private final Map<Long, ProductSnapshot> products = new ConcurrentHashMap<>();
+    // Lag per assigned partition; -1 until the partition has reported
+    private final Map<Integer, Long> partitionLag = new ConcurrentHashMap<>();
+
+    private volatile boolean warm = false;
+    private volatile long lastSyncedAt = System.currentTimeMillis();
+
+    public ProductCatalogReplica(MeterRegistry meterRegistry) {
+        Gauge.builder("product.replica.size", products, Map::size)
+                .description("Number of products held in the local catalog replica")
+                .register(meterRegistry);
+        Gauge.builder("product.replica.lag", this, ProductCatalogReplica::getLag)
+                .description("Records the replica is behind the product-state topic")
+                .register(meterRegistry);
+        Gauge.builder("product.replica.staleness.seconds", this, ProductCatalogReplica::getStalenessSeconds)
+                .description("Seconds since the replica was last known to be caught up")
+                .register(meterRegistry);
+        Gauge.builder("product.replica.warm", this, replica -> replica.isWarm() ? 1 : 0)
+                .description("1 once the replica has replayed the topic, 0 while cold")
+                .register(meterRegistry);
+    }
+
+    public void apply(ProductSnapshot snapshot) {
+        products.merge(snapshot.getProductId(), snapshot, (current, incoming) ->
+                isOlder(incoming, current) ? current : incoming);
+    }
+
+    public void remove(Long productId) {
+        products.remove(productId);
+    }
+
+    public void assignPartitions(Collection<Integer> partitions) {
+        partitions.forEach(partition -> partitionLag.putIfAbsent(partition, -1L));
+    }
+
+    public void revokePartitions(Collection<Integer> partitions) {
+        partitions.forEach(partitionLag::remove);
+    }
+
+    // Warm only once every assigned partition has reported and none is behind
+    public void updateLag(int partition, long lag) {
+        partitionLag.put(partition, lag);
+        if (!partitionLag.containsValue(-1L) && getLag() == 0) {
+            markCaughtUp();
+        }
+    }
+
+    // An idle container has polled every assigned partition and found nothing more
+    public void markCaughtUp() {
+        partitionLag.replaceAll((partition, lag) -> 0L);
+        lastSyncedAt = System.currentTimeMillis();
+        if (!warm) {
+            warm = true;
+            log.info("Product catalog replica is warm with {} products", products.size());
+        }
+    }
+
+    // Empty while the replica is cold or doesn't know the product; callers then fall back to Feign
+    public Optional<ProductDTO> findProduct(Long productId) {
+        if (!warm) {
+            return Optional.empty();
+        }
+
+        ProductSnapshot snapshot = products.get(productId);
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+
+        ProductDTO product = new ProductDTO();
+        product.setId(snapshot.getProductId());
+        product.setName(snapshot.getName());
+        product.setPrice(snapshot.getPrice());
+        product.setStock(snapshot.getStock());
+        return Optional.of(product);
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public long getLag() {
+        return partitionLag.values().stream().mapToLong(lag -> Math.max(lag, 0)).sum();
+    }
+
+    public double getStalenessSeconds() {
+        return (System.currentTimeMillis() - lastSyncedAt) / 1000.0;
+    }
+
+    private boolean isOlder(ProductSnapshot incoming, ProductSnapshot current) {
+        return incoming.getVersion() != null && current.getVersion() != null
+                && incoming.getVersion() < current.getVersion();
+    }
+}
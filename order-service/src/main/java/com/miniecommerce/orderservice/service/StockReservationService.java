@@ -0,0 +1,224 @@
+package com.miniecommerce.orderservice.service;
+
+import com.miniecommerce.orderservice.client.ProductClient;
+import com.miniecommerce.orderservice.dto.OrderItemRequest;
+import com.miniecommerce.orderservice.dto.StockReservationDTO;
+import com.miniecommerce.orderservice.dto.StockReservationRequest;
+import com.miniecommerce.orderservice.entity.ReservationConfirm;
+import com.miniecommerce.orderservice.repository.OrderRepository;
+import com.miniecommerce.orderservice.repository.ReservationConfirmRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+// Holds stock in product-service while the order is written. The confirm is recorded in
+// reservation_confirms inside the order transaction, tried right after commit off the request
+// thread and retried from that table until the hold expires; an order whose hold could not be
+// confirmed in time is moved to NEEDS_REVIEW. A rolled-back order releases its hold best-effort;
+// if that fails the hold simply expires.
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private final ProductClient productClient;
+    private final ReservationConfirmRepository reservationConfirmRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor reservationExecutor;
+    private final int holdTtlSeconds;
+    private final long firstRetryDelayMs;
+    private final long maxRetryDelayMs;
+    private final int maxAttempts;
+    private final int retryBatchSize;
+    private final long claimLeaseMs;
+
+    private final Counter confirmFailures;
+    private final Counter confirmsAbandoned;
+    private final Counter releaseFailures;
+
+    public StockReservationService(ProductClient productClient,
+                                   ReservationConfirmRepository reservationConfirmRepository,
+                                   OrderRepository orderRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Qualifier("reservationExecutor") Executor reservationExecutor,
+                                   @Value("${order.reservation.hold-ttl-seconds:600}") int holdTtlSeconds,
+                                   @Value("${order.reservation.confirm-retry.first-delay-ms:10000}") long firstRetryDelayMs,
+                                   @Value("${order.reservation.confirm-retry.max-delay-ms:300000}") long maxRetryDelayMs,
+                                   @Value("${order.reservation.confirm-retry.max-attempts:20}") int maxAttempts,
+                                   @Value("${order.reservation.confirm-retry.batch-size:50}") int retryBatchSize,
+                                   @Value("${order.reservation.confirm-retry.claim-lease-ms:120000}") long claimLeaseMs,
+                                   MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        this.reservationConfirmRepository = reservationConfirmRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.reservationExecutor = reservationExecutor;
+        this.holdTtlSeconds = holdTtlSeconds;
+        this.firstRetryDelayMs = firstRetryDelayMs;
+        this.maxRetryDelayMs = maxRetryDelayMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBatchSize = retryBatchSize;
+        this.claimLeaseMs = claimLeaseMs;
+
+        this.confirmFailures = Counter.builder("order.reservation.failures")
+                .description("Stock reservations that could not be confirmed or released")
+                .tag("action", "confirm")
+                .register(meterRegistry);
+        this.confirmsAbandoned = Counter.builder("order.reservation.failures")
+                .description("Stock reservations that could not be confirmed or released")
+                .tag("action", "confirm-abandoned")
+                .register(meterRegistry);
+        this.releaseFailures = Counter.builder("order.reservation.failures")
+                .description("Stock reservations that could not be confirmed or released")
+                .tag("action", "release")
+                .register(meterRegistry);
+    }
+
+    // Must be called inside the order transaction
+    public String reserve(List<OrderItemRequest> items) {
+        // Taken before the call so the local deadline never outlives product-service's hold
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdTtlSeconds);
+        StockReservationDTO reservation =
+                productClient.reserveStock(new StockReservationRequest(items, holdTtlSeconds));
+        String reservationId = reservation.getReservationId();
+        log.info("Stock reserved: {} (expires at {})", reservationId, reservation.getExpiresAt());
+
+        // Commits or rolls back with the order; the retry job only sees it once the order exists
+        ReservationConfirm pending = new ReservationConfirm();
+        pending.setReservationId(reservationId);
+        pending.setNextAttemptAt(LocalDateTime.now().plusNanos(firstRetryDelayMs * 1_000_000));
+        pending.setExpiresAt(expiresAt);
+        reservationConfirmRepository.save(pending);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                try {
+                    reservationExecutor.execute(committed
+                            ? () -> confirmNow(reservationId)
+                            : () -> release(reservationId));
+                } catch (RejectedExecutionException e) {
+                    if (committed) {
+                        log.warn("⚠️ Confirm of stock reservation {} deferred to the retry job: executor is full",
+                                reservationId);
+                    } else {
+                        releaseFailures.increment();
+                        log.error("❌ Could not queue release of stock reservation {}; it will expire instead",
+                                reservationId);
+                    }
+                }
+            }
+        });
+        return reservationId;
+    }
+
+    // Retries confirms that failed or were never attempted, with exponential backoff. Due rows are
+    // claimed in a short transaction by pushing next_attempt_at out by the lease, so other instances
+    // skip them; the calls then run with no transaction or row lock held
+    @Scheduled(fixedDelayString = "${order.reservation.confirm-retry.interval-ms:5000}")
+    public void retryConfirms() {
+        List<ReservationConfirm> claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<ReservationConfirm> due = reservationConfirmRepository.lockDue(now, retryBatchSize);
+                due.forEach(pending -> pending.setNextAttemptAt(now.plusNanos(claimLeaseMs * 1_000_000)));
+                return due;
+            });
+        } catch (Exception e) {
+            log.error("❌ Stock reservation confirm retry failed: {}", e.getMessage(), e);
+            return;
+        }
+        for (ReservationConfirm pending : claimed) {
+            try {
+                retry(pending);
+            } catch (Exception e) {
+                // The lease runs out and the row is picked up again
+                log.error("❌ Could not record confirm retry of stock reservation {}: {}",
+                        pending.getReservationId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void confirmNow(String reservationId) {
+        try {
+            productClient.confirmReservation(reservationId);
+            transactionTemplate.executeWithoutResult(status ->
+                    reservationConfirmRepository.deleteByReservationId(reservationId));
+            log.info("Stock reservation confirmed: {}", reservationId);
+        } catch (Exception e) {
+            // Still in reservation_confirms; confirming is idempotent, so the retry job simply tries again
+            confirmFailures.increment();
+            log.error("❌ Failed to confirm stock reservation {}, will retry: {}", reservationId, e.getMessage());
+        }
+    }
+
+    // Calls product-service outside any transaction, then records the outcome in one of its own
+    private void retry(ReservationConfirm claimed) {
+        String error;
+        try {
+            productClient.confirmReservation(claimed.getReservationId());
+            transactionTemplate.executeWithoutResult(status ->
+                    reservationConfirmRepository.deleteByReservationId(claimed.getReservationId()));
+            log.info("Stock reservation confirmed on retry {}: {}", claimed.getAttempts() + 1, claimed.getReservationId());
+            return;
+        } catch (Exception e) {
+            confirmFailures.increment();
+            error = truncate(e.getMessage());
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                // Gone if a late confirmNow succeeded in the meantime
+                reservationConfirmRepository.findById(claimed.getId())
+                        .ifPresent(pending -> recordFailure(pending, error)));
+    }
+
+    private void recordFailure(ReservationConfirm pending, String error) {
+        pending.setLastError(error);
+        pending.setAttempts(pending.getAttempts() + 1);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deadline = pending.getExpiresAt() != null
+                ? pending.getExpiresAt() : pending.getCreatedAt().plusSeconds(holdTtlSeconds);
+        if (pending.getAttempts() >= maxAttempts || !now.isBefore(deadline)) {
+            // The hold is gone or about to be: the order must not stay COMPLETED without its stock
+            confirmsAbandoned.increment();
+            int flagged = orderRepository.updateStatusByReservationId(pending.getReservationId(), "NEEDS_REVIEW");
+            log.error("❌ Gave up confirming stock reservation {} after {} attempts; {} order(s) NEEDS_REVIEW: {}",
+                    pending.getReservationId(), pending.getAttempts(), flagged, pending.getLastError());
+            reservationConfirmRepository.delete(pending);
+            return;
+        }
+        // Backoff never schedules past the hold's expiry, so the last try still lands inside it
+        long delayMs = Math.min(maxRetryDelayMs, firstRetryDelayMs << Math.min(pending.getAttempts(), 20));
+        LocalDateTime next = now.plusNanos(delayMs * 1_000_000);
+        pending.setNextAttemptAt(next.isBefore(deadline) ? next : deadline.minusSeconds(1));
+        reservationConfirmRepository.save(pending);
+    }
+
+    private void release(String reservationId) {
+        try {
+            productClient.releaseReservation(reservationId);
+            log.info("Stock reservation released: {}", reservationId);
+        } catch (Exception e) {
+            // The hold is released by the expiry sweeper instead
+            releaseFailures.increment();
+            log.error("❌ Failed to release stock reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
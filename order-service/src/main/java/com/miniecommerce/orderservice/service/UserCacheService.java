@@ -0,0 +1,129 @@
+package com.miniecommerce.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miniecommerce.orderservice.client.UserClient;
+import com.miniecommerce.orderservice.dto.UserDTO;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Duration;
+
+@Service
+@Slf4j
+public class UserCacheService {
+
+    private static final String CACHE_NAME = "userCache";
+
+    private final UserClient userClient;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, CachedUser> cache;
+    private final long revalidateAfterNanos;
+
+    private final Counter notModifiedCounter;
+    private final Counter modifiedCounter;
+
+    public UserCacheService(UserClient userClient,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.cache.user.max-size:10000}") long maxSize,
+                            @Value("${order.cache.user.ttl:10m}") Duration ttl,
+                            @Value("${order.cache.user.revalidate-after:30s}") Duration revalidateAfter) {
+        this.userClient = userClient;
+        this.objectMapper = objectMapper;
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        this.notModifiedCounter = Counter.builder("order.cache.user.revalidations")
+                .description("Conditional GETs sent for cached users")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+        this.modifiedCounter = Counter.builder("order.cache.user.revalidations")
+                .description("Conditional GETs sent for cached users")
+                .tag("result", "modified")
+                .register(meterRegistry);
+    }
+
+    // Read-through lookup; errors and fallback data are never cached.
+    // Entries older than revalidate-after are checked with If-None-Match, which costs a
+    // version lookup and an empty 304 instead of the full user while nothing changed.
+    public UserDTO getUserById(Long id) {
+        CachedUser cached = cache.getIfPresent(id);
+        if (cached != null) {
+            if (System.nanoTime() - cached.fetchedAtNanos < revalidateAfterNanos) {
+                return cached.user;
+            }
+            UserDTO revalidated = revalidate(id, cached);
+            if (revalidated != null) {
+                return revalidated;
+            }
+        }
+
+        UserDTO user = userClient.getUserById(id);
+        if (user != null && !"Service Unavailable".equals(user.getName())) {
+            cache.put(id, new CachedUser(user));
+        }
+        return user;
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            log.debug("Evicting user {} from {}", id, CACHE_NAME);
+            cache.invalidate(id);
+        }
+    }
+
+    // Returns null when the cached copy cannot be revalidated; the caller then does a full fetch
+    private UserDTO revalidate(Long id, CachedUser cached) {
+        if (cached.user.getVersion() == null) {
+            return null;
+        }
+
+        String etag = "\"" + cached.user.getVersion() + "\"";
+        try (Response response = userClient.revalidateUser(id, etag)) {
+            if (response.status() == HttpStatus.NOT_MODIFIED.value()) {
+                notModifiedCounter.increment();
+                cache.put(id, new CachedUser(cached.user));
+                return cached.user;
+            }
+            if (response.status() == HttpStatus.OK.value() && response.body() != null) {
+                modifiedCounter.increment();
+                try (InputStream body = response.body().asInputStream()) {
+                    UserDTO user = objectMapper.readValue(body, UserDTO.class);
+                    cache.put(id, new CachedUser(user));
+                    return user;
+                }
+            }
+            // 404 and errors go through the regular lookup and its error handling
+            cache.invalidate(id);
+        } catch (Exception e) {
+            log.warn("Revalidating cached user {} failed: {}", id, e.getMessage());
+        }
+        return null;
+    }
+
+    private static final class CachedUser {
+        private final UserDTO user;
+        private final long fetchedAtNanos;
+
+        private CachedUser(UserDTO user) {
+            this.user = user;
+            this.fetchedAtNanos = System.nanoTime();
+        }
+    }
+}
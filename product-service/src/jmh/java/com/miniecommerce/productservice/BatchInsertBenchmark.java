@@ -0,0 +1,129 @@
+package com.miniecommerce.productservice;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Rows/sec for saving products with IDENTITY ids against pooled-lo sequence ids, issuing the
+// statements Hibernate sends for each: with IDENTITY every row is its own INSERT ... RETURNING round
+// trip (batching is disabled); with pooled-lo one nextval covers 50 rows and the INSERTs go out in
+// JDBC batches of hibernate.jdbc.batch_size (20). Each invocation saves ROWS rows in one transaction:
+//   mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BatchInsertBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 20;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_IDENTITY = "INSERT INTO bench_products_identity "
+            + "(name, description, price, category) VALUES (?, ?, ?, ?) RETURNING id";
+    private static final String INSERT_POOLED = "INSERT INTO bench_products_pooled "
+            + "(id, name, description, price, category) VALUES (?, ?, ?, ?, ?)";
+
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void createTables() {
+        dataSource = BenchmarkDatabase.dataSource();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_products_identity, bench_products_pooled");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS bench_products_seq");
+        jdbcTemplate.execute("CREATE TABLE bench_products_identity (id bigint GENERATED BY DEFAULT AS IDENTITY "
+                + "PRIMARY KEY, name varchar(255) NOT NULL, description varchar(1000), "
+                + "price numeric(38, 2) NOT NULL, category varchar(255))");
+        jdbcTemplate.execute("CREATE TABLE bench_products_pooled (id bigint PRIMARY KEY, name varchar(255) NOT NULL, "
+                + "description varchar(1000), price numeric(38, 2) NOT NULL, category varchar(255))");
+        jdbcTemplate.execute("CREATE SEQUENCE bench_products_seq INCREMENT BY " + ALLOCATION_SIZE);
+    }
+
+    // Keeps the tables (and their indexes) the same size from one iteration to the next
+    @Setup(Level.Iteration)
+    public void truncate() {
+        new JdbcTemplate(dataSource).execute("TRUNCATE bench_products_identity, bench_products_pooled");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long lastId = 0;
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_IDENTITY)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i);
+                try (ResultSet ids = insert.executeQuery()) {
+                    ids.next();
+                    lastId = ids.getLong(1);
+                }
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooledLo() throws SQLException {
+        long lastId = 0;
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (PreparedStatement nextval = connection.prepareStatement("SELECT nextval('bench_products_seq')");
+             PreparedStatement insert = connection.prepareStatement(INSERT_POOLED)) {
+            long low = 0;
+            for (int i = 0; i < ROWS; i++) {
+                // pooled-lo: the sequence value is the first id of the next block of ALLOCATION_SIZE
+                if (i % ALLOCATION_SIZE == 0) {
+                    try (ResultSet value = nextval.executeQuery()) {
+                        value.next();
+                        low = value.getLong(1);
+                    }
+                }
+                lastId = low + i % ALLOCATION_SIZE;
+                insert.setLong(1, lastId);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return lastId;
+    }
+
+    private static void bind(PreparedStatement insert, int first, int row) throws SQLException {
+        insert.setString(first, "Benchmark product " + row);
+        insert.setString(first + 1, "Inserted by BatchInsertBenchmark");
+        insert.setBigDecimal(first + 2, BigDecimal.valueOf(row % 1000, 2));
+        insert.setString(first + 3, "Benchmark");
+    }
+}
@@ -0,0 +1,39 @@
+package com.miniecommerce.productservice;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Postgres for the JMH benchmarks: the database in BENCHMARK_JDBC_URL (with BENCHMARK_JDBC_USER and
+// BENCHMARK_JDBC_PASSWORD) when set, otherwise a throwaway Testcontainers instance. One connection,
+// since the benchmarks run single-threaded.
+public final class BenchmarkDatabase {
+
+    private static final String IMAGE = "postgres:16-alpine";
+
+    private static PostgreSQLContainer<?> container;
+    private static SingleConnectionDataSource dataSource;
+
+    private BenchmarkDatabase() {
+    }
+
+    public static synchronized SingleConnectionDataSource dataSource() {
+        if (dataSource == null) {
+            String url = System.getenv("BENCHMARK_JDBC_URL");
+            if (url != null) {
+                dataSource = new SingleConnectionDataSource(url, System.getenv("BENCHMARK_JDBC_USER"),
+                        System.getenv("BENCHMARK_JDBC_PASSWORD"), true);
+            } else {
+                container = new PostgreSQLContainer<>(IMAGE);
+                container.start();
+                dataSource = new SingleConnectionDataSource(container.getJdbcUrl(), container.getUsername(),
+                        container.getPassword(), true);
+            }
+        }
+        return dataSource;
+    }
+
+    public static JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+}
@@ -0,0 +1,111 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.BenchmarkDatabase;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// One page of search results plus its count, as the endpoint needs them, for the LIKE query that
+// search used before against the full-text query of ProductRepository, on a seeded products table:
+//   mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ProductSearchBenchmark
+// Seeding a million products and building the indexes takes a few minutes before the first iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class ProductSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] ADJECTIVES = {"Gaming", "Wireless", "Portable", "Compact", "Ergonomic",
+            "Smart", "Classic", "Premium", "Rugged", "Silent", "Digital", "Vintage", "Modular", "Foldable",
+            "Waterproof", "Solar", "Heated", "Adjustable", "Mini", "Ultra"};
+    private static final String[] NOUNS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Headset", "Speaker",
+            "Camera", "Charger", "Backpack", "Lamp", "Kettle", "Blender", "Chair", "Desk", "Router", "Tablet",
+            "Watch", "Drone", "Microphone", "Printer", "Toaster", "Fan", "Heater", "Scanner", "Projector"};
+    private static final String[] CATEGORIES = {"Computers", "Accessories", "Audio", "Photo", "Kitchen",
+            "Office", "Furniture", "Networking", "Wearables", "Outdoor", "Home", "Toys"};
+
+    // What findByNameContainingIgnoreCase(name, pageable) sends: a page and a count
+    private static final String LIKE = "SELECT p.id FROM products p "
+            + "WHERE upper(p.name) LIKE upper(:pattern) ESCAPE '\\' LIMIT " + PAGE_SIZE;
+    private static final String LIKE_COUNT = "SELECT count(*) FROM products p "
+            + "WHERE upper(p.name) LIKE upper(:pattern) ESCAPE '\\'";
+    private static final String FULL_TEXT = ProductRepository.SEARCH_FULL_TEXT + " LIMIT " + PAGE_SIZE;
+
+    // Kept across parameter combinations so the table is seeded once per fork
+    private static int seededProducts;
+
+    @Param("1000000")
+    public int products;
+
+    @Param({"laptop", "gaming lapt", "wireless mouse", "kitchen"})
+    public String keyword;
+
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        JdbcTemplate jdbcTemplate = BenchmarkDatabase.jdbcTemplate();
+        jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        synchronized (ProductSearchBenchmark.class) {
+            if (seededProducts == products) {
+                return;
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+            jdbcTemplate.execute("CREATE TABLE products (id bigint PRIMARY KEY, name varchar(255) NOT NULL, "
+                    + "description varchar(1000), category varchar(255), price numeric(38, 2) NOT NULL)");
+            jdbcTemplate.update("INSERT INTO products (id, name, description, category, price) "
+                    + "SELECT g, "
+                    + array(ADJECTIVES) + "[1 + g % " + ADJECTIVES.length + "] || ' ' || "
+                    + array(NOUNS) + "[1 + (g / 7) % " + NOUNS.length + "] || ' ' || 'M' || g, "
+                    + "'A ' || lower(" + array(ADJECTIVES) + "[1 + (g / 3) % " + ADJECTIVES.length + "]) || ' '"
+                    + " || lower(" + array(NOUNS) + "[1 + (g / 11) % " + NOUNS.length + "]) || ' for everyday use', "
+                    + array(CATEGORIES) + "[1 + g % " + CATEGORIES.length + "], "
+                    + "(g % 1000) + 0.99 "
+                    + "FROM generate_series(1, ?) g", products);
+            ProductSearchService.SEARCH_INDEX_DDL.forEach(jdbcTemplate::execute);
+            jdbcTemplate.execute("ANALYZE products");
+            seededProducts = products;
+        }
+    }
+
+    @Benchmark
+    public long like() {
+        Map<String, String> params = Map.of("pattern", "%" + keyword.replace("\\", "\\\\")
+                .replace("%", "\\%").replace("_", "\\_") + "%");
+        long page = jdbc.queryForList(LIKE, params, Long.class).size();
+        return page + jdbc.queryForObject(LIKE_COUNT, params, Long.class);
+    }
+
+    @Benchmark
+    public long fullText() {
+        Map<String, String> params = Map.of("tsQuery", ProductSearchService.toPrefixQuery(keyword), "keyword", keyword);
+        long page = jdbc.queryForList(FULL_TEXT, params, Long.class).size();
+        return page + jdbc.queryForObject(ProductRepository.SEARCH_FULL_TEXT_COUNT, params, Long.class);
+    }
+
+    private static String array(String[] values) {
+        return Arrays.stream(values).map(value -> "'" + value + "'")
+                .collect(Collectors.joining(", ", "(ARRAY[", "])"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.miniecommerce.productservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Executor used to commit the warehouse allocations of different products in parallel;
+    // each task holds a database connection, so keep it below the connection pool size
+    @Bean(name = "allocationExecutor")
+    public Executor allocationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("warehouse-allocation-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Bulk price and stock jobs run one at a time, in the order they were submitted
+    @Bean(name = "bulkUpdateExecutor")
+    public Executor bulkUpdateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("bulk-update-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs the @Scheduled jobs (flash-sale flush, catalog snapshot refresh, reservation sweeps,
+    // ledger snapshots, ...). Spring's default is a single thread, where one slow job delays all
+    // the others; one thread per job keeps the 250-500 ms jobs on time
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(8);
+        scheduler.setThreadNamePrefix("product-scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -0,0 +1,37 @@
+package com.miniecommerce.productservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Products and stock reservations used IDENTITY columns before; their new id sequences start at 1,
+// so skip them past the ids already in the tables before anything is inserted.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceMigration {
+
+    // Table -> sequence of its @SequenceGenerator
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "products", "products_seq",
+            "stock_reservations", "stock_reservations_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        // nextval only moves forward, so this is safe while other instances are inserting
+        SEQUENCES.forEach((table, sequence) -> jdbcTemplate.execute(
+                "DO $$ BEGIN "
+                        + "WHILE nextval('" + sequence + "') <= (SELECT coalesce(max(id), 0) FROM " + table + ") LOOP "
+                        + "NULL; END LOOP; END $$"));
+        log.info("Id sequences are past the existing product and reservation ids");
+    }
+}
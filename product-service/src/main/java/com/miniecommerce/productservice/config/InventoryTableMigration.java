@@ -0,0 +1,54 @@
+package com.miniecommerce.productservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Copies stock out of the products table into the inventory table created by ddl-auto.
+// Runs after the schema update and before CatalogWarmup reads any stock.
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class InventoryTableMigration {
+
+    private static final String LEGACY_STOCK_COLUMN_EXISTS =
+            "SELECT EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = current_schema() "
+                    + "AND table_name = 'products' AND column_name = 'stock')";
+
+    // Idempotent; ddl-auto only adds columns and tables, it never copies data. The old column is
+    // kept (but no longer required, since the entity stops writing it) so a rollback still has it.
+    private static final List<String> COPY_LEGACY_STOCK = List.of(
+            "INSERT INTO inventory (product_id, stock, version) SELECT id, stock, 0 FROM products "
+                    + "WHERE stock IS NOT NULL ON CONFLICT (product_id) DO NOTHING",
+            "ALTER TABLE products ALTER COLUMN stock DROP NOT NULL"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean dropLegacyStockColumn;
+
+    public InventoryTableMigration(JdbcTemplate jdbcTemplate,
+                                   @Value("${product.migration.drop-legacy-stock-column:false}") boolean dropLegacyStockColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dropLegacyStockColumn = dropLegacyStockColumn;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(LEGACY_STOCK_COLUMN_EXISTS, Boolean.class))) {
+            COPY_LEGACY_STOCK.forEach(jdbcTemplate::execute);
+            // Explicit, one-off step: only once every instance reads stock from inventory
+            if (dropLegacyStockColumn) {
+                jdbcTemplate.execute("ALTER TABLE products DROP COLUMN stock");
+                log.info("Dropped the legacy products.stock column");
+            }
+        }
+        // Leave room on each page so stock updates stay heap-only (HOT) and skip index maintenance
+        jdbcTemplate.execute("ALTER TABLE inventory SET (fillfactor = 80)");
+        log.info("Inventory table is ready");
+    }
+}
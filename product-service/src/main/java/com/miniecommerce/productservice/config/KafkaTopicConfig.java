@@ -0,0 +1,22 @@
+package com.miniecommerce.productservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    public static final String PRODUCT_STATE_TOPIC = "product-state";
+
+    // Log-compacted so consumers can rebuild the latest state of every product from the topic alone
+    @Bean
+    public NewTopic productStateTopic() {
+        return TopicBuilder.name(PRODUCT_STATE_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+}
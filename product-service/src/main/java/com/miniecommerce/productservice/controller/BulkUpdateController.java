@@ -0,0 +1,36 @@
+package com.miniecommerce.productservice.controller;
+
+import com.miniecommerce.productservice.dto.BulkUpdateRequest;
+import com.miniecommerce.productservice.dto.BulkUpdateStatus;
+import com.miniecommerce.productservice.service.BulkUpdateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/products/bulk-updates")
+@RequiredArgsConstructor
+class BulkUpdateController {
+    private final BulkUpdateService bulkUpdateService;
+
+    // POST /products/bulk-updates - Queue category repricing and/or explicit price and stock changes
+    @PostMapping
+    public ResponseEntity<BulkUpdateStatus> submit(@Valid @RequestBody BulkUpdateRequest request) {
+        return ResponseEntity.accepted().body(bulkUpdateService.submit(request));
+    }
+
+    // GET /products/bulk-updates - Recent bulk updates, including queued and running ones
+    @GetMapping
+    public ResponseEntity<List<BulkUpdateStatus>> getBulkUpdates() {
+        return ResponseEntity.ok(bulkUpdateService.getStatuses());
+    }
+
+    // GET /products/bulk-updates/{jobId} - Progress and per-product errors of one bulk update
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BulkUpdateStatus> getBulkUpdate(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkUpdateService.getStatus(jobId));
+    }
+}
@@ -1,13 +1,26 @@
 package com.miniecommerce.productservice.controller;
 
+import com.miniecommerce.productservice.dto.FlashSaleStatus;
+import com.miniecommerce.productservice.dto.ProductFacets;
+import com.miniecommerce.productservice.dto.ProductPage;
+import com.miniecommerce.productservice.dto.ProductSearchResult;
+import com.miniecommerce.productservice.dto.ProductSuggestion;
+import com.miniecommerce.productservice.dto.StockAlertSettings;
+import com.miniecommerce.productservice.dto.StockBalance;
+import com.miniecommerce.productservice.dto.StockUpdateRequest;
 import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.entity.StockMovement;
 import com.miniecommerce.productservice.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -17,15 +30,77 @@ class ProductController {
     private final ProductService productService;
 
     // GET /products - Get all products
+    // GET /products?ids=1,2,3 - Get several products in one call
+    // GET /products?fields=id,name,price - Only the listed fields (also on /{id}, /category and /available)
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) List<Long> ids,
+                                            @RequestParam(required = false) String fields) {
+        if (ids != null) {
+            return fields != null
+                    ? ResponseEntity.ok(productService.getProductsByIds(ids, fields))
+                    : ResponseEntity.ok(productService.getProductsByIds(ids));
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getAllProducts(fields));
+        }
+        return productService.getAllProductsJson()
+                .<ResponseEntity<?>>map(this::json)
+                .orElseGet(() -> ResponseEntity.ok(productService.getAllProducts()));
+    }
+
+    // GET /products/page?category=&minPrice=&maxPrice=&inStock=true&sort=PRICE_ASC&size=20&cursor=
+    // - Keyset-paginated, filtered listing; pass nextCursor back as cursor for the next page
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> listProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "NEWEST") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        ProductPage page = productService.listProducts(category, minPrice, maxPrice, inStock, sort, cursor, size);
+        String etag = ETags.forList(page.getItems(), Product::getId, Product::getRevision);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+
+    // GET /products/facets?category=&priceBand=&inStock= - Category, price band and availability counts
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacets> getFacets(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(required = false) Boolean inStock) {
+        return ResponseEntity.ok(productService.getFacets(category, priceBand, inStock));
+    }
+
+    // POST /products/batch - Get several products by IDs sent in the body (for large ID sets)
+    @PostMapping("/batch")
+    public ResponseEntity<?> getProductsByIds(@RequestBody List<Long> ids,
+                                              @RequestParam(required = false) String fields) {
+        return fields != null
+                ? ResponseEntity.ok(productService.getProductsByIds(ids, fields))
+                : ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     // GET /products/{id} - Get product by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<?> getProductById(@PathVariable Long id,
+                                            @RequestParam(required = false) String fields,
+                                            WebRequest request) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getProductById(id, fields));
+        }
+        // If-None-Match is checked against the revision alone; the product is loaded only when it changed
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.forVersion(productService.getProductRevision(id)))) {
+            return null;
+        }
+        Product product = productService.getProductById(id);
+        return ResponseEntity.ok().eTag(ETags.forVersion(product.getRevision())).body(product);
     }
 
     // POST /products - Create new product
@@ -52,20 +127,42 @@ class ProductController {
 
     // GET /products/category/{category} - Get products by category
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String category,
+                                                   @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getProductsByCategory(category, fields));
+        }
+        return productService.getProductsByCategoryJson(category)
+                .<ResponseEntity<?>>map(this::json)
+                .orElseGet(() -> ResponseEntity.ok(productService.getProductsByCategory(category)));
     }
 
-    // GET /products/search?keyword=laptop - Search products
+    // GET /products/search?keyword=laptop&page=0&size=20 - Search name, category and description, best matches first
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+    public ResponseEntity<ProductSearchResult> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(keyword, page, size));
+    }
+
+    // GET /products/suggest?prefix=lap&limit=10 - Autocomplete names and categories from memory, most popular first
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
     }
 
     // GET /products/available - Get in-stock products
     @GetMapping("/available")
-    public ResponseEntity<List<Product>> getAvailableProducts() {
-        return ResponseEntity.ok(productService.getAvailableProducts());
+    public ResponseEntity<?> getAvailableProducts(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getAvailableProducts(fields));
+        }
+        return productService.getAvailableProductsJson()
+                .<ResponseEntity<?>>map(this::json)
+                .orElseGet(() -> ResponseEntity.ok(productService.getAvailableProducts()));
     }
 
     // Put /products/{id}/stock - Update stock
@@ -79,4 +176,65 @@ class ProductController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // PUT /products/stock - Update stock of several products atomically
+    @PutMapping("/stock")
+    public ResponseEntity<?> updateStockBatch(@Valid @RequestBody List<StockUpdateRequest> updates) {
+        try {
+            return ResponseEntity.ok(productService.updateStockBatch(updates));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET /products/{id}/stock/balance - Stock rebuilt from the last ledger snapshot plus later movements
+    @GetMapping("/{id}/stock/balance")
+    public ResponseEntity<StockBalance> getStockBalance(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getStockBalance(id));
+    }
+
+    // GET /products/{id}/stock/movements - Most recent stock movements first
+    @GetMapping("/{id}/stock/movements")
+    public ResponseEntity<List<StockMovement>> getStockMovements(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(productService.getStockMovements(id, limit));
+    }
+
+    // GET /products/{id}/stock/alert - Low-stock threshold, hysteresis and current alert state
+    @GetMapping("/{id}/stock/alert")
+    public ResponseEntity<StockAlertSettings> getStockAlertSettings(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getStockAlertSettings(id));
+    }
+
+    // PUT /products/{id}/stock/alert - Set the low-stock threshold and hysteresis of a product
+    @PutMapping("/{id}/stock/alert")
+    public ResponseEntity<StockAlertSettings> updateStockAlertSettings(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAlertSettings settings) {
+        return ResponseEntity.ok(productService.updateStockAlertSettings(id, settings));
+    }
+
+    // POST /products/{id}/flash-sale - Serve stock of a hot product from in-memory counters
+    @PostMapping("/{id}/flash-sale")
+    public ResponseEntity<FlashSaleStatus> startFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.startFlashSale(id));
+    }
+
+    // GET /products/{id}/flash-sale - Flash-sale pool status
+    @GetMapping("/{id}/flash-sale")
+    public ResponseEntity<FlashSaleStatus> getFlashSaleStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getFlashSaleStatus(id));
+    }
+
+    // DELETE /products/{id}/flash-sale - Flush sold units and return to database-backed stock
+    @DeleteMapping("/{id}/flash-sale")
+    public ResponseEntity<FlashSaleStatus> stopFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.stopFlashSale(id));
+    }
+
+    // Catalog snapshot lists are already JSON; written out as-is
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
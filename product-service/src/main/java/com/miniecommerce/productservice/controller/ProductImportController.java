@@ -0,0 +1,62 @@
+package com.miniecommerce.productservice.controller;
+
+import com.miniecommerce.productservice.dto.ProductImportStatus;
+import com.miniecommerce.productservice.service.ProductImportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/products/import")
+@RequiredArgsConstructor
+class ProductImportController {
+    private final ProductImportService importService;
+
+    // POST /products/import - Upsert products by SKU from a streamed CSV or NDJSON body.
+    // 202 and the job's Location are sent as soon as the input is accepted; the body carries
+    // the final status once every row has been read
+    @PostMapping(consumes = {ProductImportService.TEXT_CSV, ProductImportService.APPLICATION_NDJSON},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductImportStatus> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            HttpServletResponse response) throws IOException {
+        URI[] location = new URI[1];
+        ProductImportStatus status = importService.importProducts(body, contentType, started -> {
+            location[0] = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{jobId}").buildAndExpand(started.getId()).toUri();
+            response.setStatus(HttpStatus.ACCEPTED.value());
+            response.setHeader(HttpHeaders.LOCATION, location[0].toString());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try {
+                response.flushBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.accepted().location(location[0]).body(status);
+    }
+
+    // GET /products/import - Recent imports, including ones still running
+    @GetMapping
+    public ResponseEntity<List<ProductImportStatus>> getImports() {
+        return ResponseEntity.ok(importService.getImportStatuses());
+    }
+
+    // GET /products/import/{jobId} - Progress and row errors of one import
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ProductImportStatus> getImport(@PathVariable String jobId) {
+        return ResponseEntity.ok(importService.getImportStatus(jobId));
+    }
+}
@@ -0,0 +1,41 @@
+package com.miniecommerce.productservice.controller;
+
+import com.miniecommerce.productservice.dto.ReservationRequest;
+import com.miniecommerce.productservice.dto.ReservationResponse;
+import com.miniecommerce.productservice.service.StockReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/products/reservations")
+@RequiredArgsConstructor
+class StockReservationController {
+    private final StockReservationService reservationService;
+
+    // POST /products/reservations - Hold stock for several products until confirmed, released or expired
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@Valid @RequestBody ReservationRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.reserve(request));
+    }
+
+    // GET /products/reservations/{reservationId} - Get a reservation
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<ReservationResponse> getReservation(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.getReservation(reservationId));
+    }
+
+    // POST /products/reservations/{reservationId}/confirm - Keep the held stock
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<ReservationResponse> confirm(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.confirm(reservationId));
+    }
+
+    // POST /products/reservations/{reservationId}/release - Give the held stock back
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<ReservationResponse> release(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.release(reservationId));
+    }
+}
@@ -0,0 +1,56 @@
+package com.miniecommerce.productservice.controller;
+
+import com.miniecommerce.productservice.dto.AllocationRequest;
+import com.miniecommerce.productservice.dto.AllocationResponse;
+import com.miniecommerce.productservice.entity.Warehouse;
+import com.miniecommerce.productservice.entity.WarehouseStock;
+import com.miniecommerce.productservice.service.WarehouseAllocationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/products/warehouses")
+@RequiredArgsConstructor
+class WarehouseController {
+    private final WarehouseAllocationService allocationService;
+
+    // POST /products/warehouses - Create a warehouse
+    @PostMapping
+    public ResponseEntity<Warehouse> createWarehouse(@Valid @RequestBody Warehouse warehouse) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(allocationService.createWarehouse(warehouse));
+    }
+
+    // GET /products/warehouses - Get all warehouses
+    @GetMapping
+    public ResponseEntity<List<Warehouse>> getAllWarehouses() {
+        return ResponseEntity.ok(allocationService.getAllWarehouses());
+    }
+
+    // GET /products/warehouses/stock?productId= - Stock of a product per warehouse
+    @GetMapping("/stock")
+    public ResponseEntity<List<WarehouseStock>> getWarehouseStock(@RequestParam Long productId) {
+        return ResponseEntity.ok(allocationService.getWarehouseStock(productId));
+    }
+
+    // PUT /products/warehouses/{warehouseId}/stock/{productId} - Restock a product at one warehouse
+    // PUT /products/warehouses/{warehouseId}/stock/{productId}?addToTotal=false - Place units already in the total
+    @PutMapping("/{warehouseId}/stock/{productId}")
+    public ResponseEntity<List<WarehouseStock>> restock(
+            @PathVariable Long warehouseId,
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            @RequestParam(defaultValue = "true") boolean addToTotal) {
+        return ResponseEntity.ok(allocationService.restock(warehouseId, productId, quantity, addToTotal));
+    }
+
+    // POST /products/warehouses/allocations - Take order quantities from warehouses by strategy
+    @PostMapping("/allocations")
+    public ResponseEntity<AllocationResponse> allocate(@Valid @RequestBody AllocationRequest request) {
+        return ResponseEntity.ok(allocationService.allocate(request));
+    }
+}
@@ -0,0 +1,15 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationLine {
+    private Long productId;
+    private Long warehouseId;
+    private String warehouseCode;
+    private Integer quantity;
+}
@@ -0,0 +1,28 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 100, message = "At most 100 items can be allocated at once")
+    private List<@Valid AllocationItemRequest> items;
+
+    // nearest, cheapest or balance-load; the configured default is used when missing
+    private String strategy;
+
+    // Delivery location, required by the nearest strategy
+    private Double latitude;
+
+    private Double longitude;
+}
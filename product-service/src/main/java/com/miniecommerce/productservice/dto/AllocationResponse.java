@@ -0,0 +1,15 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationResponse {
+    private String strategy;
+    private List<AllocationLine> lines;
+}
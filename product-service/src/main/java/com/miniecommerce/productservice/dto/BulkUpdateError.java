@@ -0,0 +1,13 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateError {
+    private Long productId;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Category rules are applied first, then the explicit per-product changes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+
+    @Valid
+    private List<CategoryPriceChange> categoryPriceChanges = new ArrayList<>();
+
+    @Valid
+    private List<ProductChange> productChanges = new ArrayList<>();
+}
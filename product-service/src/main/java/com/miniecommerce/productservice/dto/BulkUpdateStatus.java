@@ -0,0 +1,25 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateStatus {
+    private String id;
+    private String status;  // QUEUED, RUNNING, COMPLETED, FAILED
+    private long productsTotal;  // Known once the job starts: category sizes plus explicit changes
+    private long productsProcessed;
+    private long productsUpdated;  // Processed products whose price or stock actually changed
+    private long productsFailed;
+    private List<BulkUpdateError> errors;  // The first max-errors failures only
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
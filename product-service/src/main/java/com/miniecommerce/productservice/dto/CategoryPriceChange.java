@@ -0,0 +1,24 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Reprices every product of a category by a percentage: 10 raises prices by 10%, -15 cuts them by 15%
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryPriceChange {
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Percentage is required")
+    @DecimalMin(value = "-100", inclusive = false, message = "Percentage must be greater than -100")
+    private BigDecimal percentage;
+}
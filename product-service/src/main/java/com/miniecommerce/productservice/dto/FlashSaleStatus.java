@@ -0,0 +1,15 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleStatus {
+    private Long productId;
+    private boolean active;
+    private Integer remaining;
+    private Long pendingSold;  // Sold units not yet flushed to the database
+}
@@ -0,0 +1,26 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// New price and/or absolute stock for one product; a null field is left unchanged
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @DecimalMin(value = "0", message = "Price must be positive")
+    private BigDecimal price;
+
+    @Min(value = 0, message = "Stock cannot be negative")
+    private Integer stock;
+}
@@ -0,0 +1,17 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacets {
+    private long total;                        // Products matching every filter
+    private Map<String, Long> categories;      // Counted without the category filter
+    private Map<String, Long> priceBands;      // Counted without the price band filter
+    private Map<String, Long> availability;    // Counted without the in-stock filter
+}
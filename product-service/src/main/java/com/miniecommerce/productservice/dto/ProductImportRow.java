@@ -0,0 +1,44 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One product of a bulk import; the SKU decides between insert and update
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+
+    @NotBlank(message = "SKU is required")
+    @Size(max = 64, message = "SKU must be at most 64 characters")
+    private String sku;
+
+    @NotBlank(message = "Product name is required")
+    @Size(max = 255, message = "Product name must be at most 255 characters")
+    private String name;
+
+    @Size(max = 1000, message = "Description must be at most 1000 characters")
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0", message = "Price must be positive")
+    private BigDecimal price;
+
+    @NotNull(message = "Stock quantity is required")
+    @Min(value = 0, message = "Stock cannot be negative")
+    private Integer stock;
+
+    @Size(max = 255, message = "Category must be at most 255 characters")
+    private String category;
+
+    @Size(max = 255, message = "Image URL must be at most 255 characters")
+    private String imageUrl;
+}
@@ -0,0 +1,25 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportStatus {
+    private String id;
+    private String format;  // CSV or NDJSON
+    private String status;  // RUNNING, COMPLETED, FAILED
+    private long rowsRead;
+    private long rowsCreated;
+    private long rowsUpdated;
+    private long rowsFailed;
+    private List<ProductImportError> errors;  // The first max-errors failures only
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,16 @@
+package com.miniecommerce.productservice.dto;
+
+import com.miniecommerce.productservice.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+    private List<Product> items;
+    private String nextCursor;  // Null on the last page
+}
@@ -0,0 +1,19 @@
+package com.miniecommerce.productservice.dto;
+
+import com.miniecommerce.productservice.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+    private String keyword;
+    private int page;
+    private int size;
+    private long totalElements;
+    private List<Product> results;  // Best matches first
+}
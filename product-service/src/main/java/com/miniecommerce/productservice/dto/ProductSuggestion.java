@@ -0,0 +1,15 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestion {
+    private String text;
+    private String type;       // PRODUCT or CATEGORY
+    private Long productId;    // Null for categories
+    private String category;
+}
@@ -0,0 +1,23 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    private List<@Valid ReservationItemRequest> items;
+
+    // Optional; the configured default TTL is used when missing
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,27 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// STOCK_LOW fires when stock falls to lowThreshold or below, and is re-armed only once stock
+// rises above lowThreshold + hysteresis; productId and state are ignored on update
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertSettings {
+
+    private Long productId;
+
+    @NotNull(message = "Low-stock threshold is required")
+    @Min(value = 0, message = "Low-stock threshold cannot be negative")
+    private Integer lowThreshold;
+
+    @NotNull(message = "Hysteresis is required")
+    @Min(value = 0, message = "Hysteresis cannot be negative")
+    private Integer hysteresis;
+
+    private String state;  // OK, LOW, OUT
+}
@@ -0,0 +1,14 @@
+package com.miniecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBalance {
+    private Long productId;
+    private Integer stock;
+    private Long lastMovementId;  // Balance includes every movement up to this one
+}
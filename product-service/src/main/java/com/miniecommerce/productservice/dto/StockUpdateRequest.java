@@ -0,0 +1,19 @@
+package com.miniecommerce.productservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateRequest {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    // Stock delta: negative to reserve, positive to restock
+    @NotNull(message = "Quantity is required")
+    private Integer quantity;
+}
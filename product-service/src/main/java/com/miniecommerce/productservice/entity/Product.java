@@ -1,25 +1,49 @@
 package com.miniecommerce.productservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset listing: every sort ends in id so the cursor is unique
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_category_id", columnList = "category, id"),
+        @Index(name = "idx_products_category_price_id", columnList = "category, price, id"),
+        // Supplier identifier; bulk imports upsert by it
+        @Index(name = "uk_products_sku", columnList = "sku", unique = true)
+})
+// Stock lives in the narrow "inventory" table, so stock churn rewrites small inventory rows
+// instead of whole product rows; reads join it back in by product_id
+@SecondaryTable(name = "inventory", pkJoinColumns = @PrimaryKeyJoinColumn(name = "product_id"))
+// Second-level cache region "products"; stock changes made with native SQL evict it (see ProductService)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids come from a sequence in blocks of 50 (pooled-lo), so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
+    @Size(max = 64, message = "SKU must be at most 64 characters")
+    @Column(length = 64)
+    private String sku;
+
     @NotBlank(message = "Product name is required")
     @Column(nullable = false)
     private String name;
@@ -34,7 +58,8 @@ public class Product {
 
     @NotNull(message = "Stock quantity is required")
     @Min(value = 0, message = "Stock cannot be negative")
-    @Column(nullable = false)
+    // Written through JPA only on insert; later changes are conditional native updates (see ProductRepository)
+    @Column(table = "inventory", nullable = false, updatable = false)
     private Integer stock;
 
     @Column(name = "category")
@@ -42,4 +67,20 @@ public class Product {
 
     @Column(name = "image_url")
     private String imageUrl;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Bumped by every stock change; the catalog version above is not
+    @JsonIgnore
+    @Column(name = "version", table = "inventory", nullable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private Long stockVersion = 0L;
+
+    // Both versions only grow, so their sum changes whenever the product or its stock does
+    @JsonIgnore
+    public Long getRevision() {
+        return (version != null ? version : 0L) + (stockVersion != null ? stockVersion : 0L);
+    }
 }
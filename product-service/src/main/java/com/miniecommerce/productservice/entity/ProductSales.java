@@ -0,0 +1,21 @@
+package com.miniecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Units of one product sold through confirmed stock holds; the autocomplete popularity
+@Entity
+@Table(name = "product_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+}
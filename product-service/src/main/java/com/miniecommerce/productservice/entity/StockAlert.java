@@ -0,0 +1,32 @@
+package com.miniecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Low-stock alerting of one product: its own thresholds (null means the configured defaults) and
+// the state it was last alerted in, so a restart neither repeats nor misses an alert
+@Entity
+@Table(name = "stock_alerts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlert {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "low_threshold")
+    private Integer lowThreshold;
+
+    private Integer hysteresis;
+
+    @Column(nullable = false, length = 16)
+    private String state;  // OK, LOW, OUT
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.miniecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// One stock change; rows are only ever appended (see StockLedgerService).
+// No foreign key to products, so the history of deleted products is kept.
+@Entity
+@Immutable
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product_id_id", columnList = "product_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Signed stock delta
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, length = 20)
+    private String reason;  // CREATED, STOCK_UPDATE, FLASH_SALE, PRODUCT_UPDATE, IMPORT, BULK_UPDATE
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
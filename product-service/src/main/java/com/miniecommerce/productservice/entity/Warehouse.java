@@ -0,0 +1,42 @@
+package com.miniecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// A fulfilment location holding its own stock of products (see WarehouseStock)
+@Entity
+@Table(name = "warehouses")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Warehouse {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Warehouse code is required")
+    @Column(nullable = false, unique = true, length = 50)
+    private String code;
+
+    @NotBlank(message = "Warehouse name is required")
+    @Column(nullable = false)
+    private String name;
+
+    // Used by the nearest-warehouse allocation strategy
+    private Double latitude;
+
+    private Double longitude;
+
+    // Cost of shipping one unit from here, used by the cheapest-warehouse allocation strategy
+    @NotNull(message = "Shipping cost is required")
+    @DecimalMin(value = "0", message = "Shipping cost cannot be negative")
+    @Column(name = "shipping_cost", nullable = false)
+    private BigDecimal shippingCost;
+}
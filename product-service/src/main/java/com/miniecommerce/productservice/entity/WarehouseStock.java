@@ -0,0 +1,38 @@
+package com.miniecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Units of one product physically held at one warehouse. Product.stock (inventory) is the sellable
+// total: reservations, stock updates, imports, bulk updates and flash sales change only that total.
+// Allocations ship units an order has already taken off the total, so they change only these rows;
+// a restock adds to both, or only to the rows when it places units the total already counts (such as
+// the stock a product was created with). The rows therefore hold the sellable total plus the units
+// sold but not yet shipped. Units never placed at a warehouse cannot be allocated.
+@Entity
+@Table(name = "warehouse_stock", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_warehouse_stock_product_warehouse", columnNames = {"product_id", "warehouse_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+}
@@ -0,0 +1,37 @@
+package com.miniecommerce.productservice.event;
+
+import com.miniecommerce.productservice.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Full product state published to the compacted product-state topic (latest value per product ID)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSnapshot implements Serializable {
+
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private Long version;
+    private LocalDateTime timestamp;
+
+    public static ProductSnapshot fromProduct(Product product) {
+        return ProductSnapshot.builder()
+                .productId(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .stock(product.getStock())
+                .version(product.getRevision())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
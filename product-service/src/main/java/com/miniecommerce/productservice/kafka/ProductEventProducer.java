@@ -7,7 +7,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -35,4 +37,28 @@ public class ProductEventProducer {
             }
         });
     }
+
+    // For bulk operations: one log line for the whole batch instead of one per event
+    public void sendProductEvents(List<ProductEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        log.info("Publishing {} product events", events.size());
+
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<SendResult<String, ProductEvent>>> futures = events.stream()
+                .map(event -> kafkaTemplate.send(TOPIC, event.getProductId().toString(), event)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                failed.incrementAndGet();
+                            }
+                        }))
+                .toList();
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).whenComplete((result, ex) -> {
+            if (failed.get() > 0) {
+                log.error("❌ Failed to publish {} of {} product events", failed.get(), events.size());
+            }
+        });
+    }
 }
\ No newline at end of file
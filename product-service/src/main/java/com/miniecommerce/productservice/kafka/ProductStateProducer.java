@@ -0,0 +1,72 @@
+package com.miniecommerce.productservice.kafka;
+
+import com.miniecommerce.productservice.config.KafkaTopicConfig;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.event.ProductSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStateProducer {
+
+    private final KafkaTemplate<String, ProductSnapshot> kafkaTemplate;
+
+    public void sendSnapshot(Product product) {
+        log.debug("Publishing product snapshot for product ID: {} (version {})",
+                product.getId(), product.getRevision());
+
+        kafkaTemplate.send(KafkaTopicConfig.PRODUCT_STATE_TOPIC, product.getId().toString(),
+                        ProductSnapshot.fromProduct(product))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Failed to publish product snapshot for product {}: {}",
+                                product.getId(), ex.getMessage());
+                    }
+                });
+    }
+
+    // Same as sendSnapshot for many products, reporting failures once for the batch
+    public void sendSnapshots(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        log.debug("Publishing {} product snapshots", products.size());
+
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture.allOf(products.stream()
+                        .map(product -> kafkaTemplate.send(KafkaTopicConfig.PRODUCT_STATE_TOPIC,
+                                        product.getId().toString(), ProductSnapshot.fromProduct(product))
+                                .whenComplete((result, ex) -> {
+                                    if (ex != null) {
+                                        failed.incrementAndGet();
+                                    }
+                                }))
+                        .toArray(CompletableFuture[]::new))
+                .whenComplete((result, ex) -> {
+                    if (failed.get() > 0) {
+                        log.error("❌ Failed to publish {} of {} product snapshots", failed.get(), products.size());
+                    }
+                });
+    }
+
+    // A null value (tombstone) removes the product from the compacted topic
+    public void sendTombstone(Long productId) {
+        log.debug("Publishing product tombstone for product ID: {}", productId);
+
+        kafkaTemplate.send(KafkaTopicConfig.PRODUCT_STATE_TOPIC, productId.toString(), null)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Failed to publish product tombstone for product {}: {}",
+                                productId, ex.getMessage());
+                    }
+                });
+    }
+}
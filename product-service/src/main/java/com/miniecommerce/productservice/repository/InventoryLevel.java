@@ -0,0 +1,11 @@
+package com.miniecommerce.productservice.repository;
+
+// Interface projection of an inventory row after a stock change
+public interface InventoryLevel {
+    Integer getStock();
+
+    Long getVersion();
+
+    // Signed change that was applied
+    Integer getDelta();
+}
@@ -0,0 +1,18 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+// Sparse fieldsets: selects only the requested columns instead of whole entities
+public interface ProductFieldsRepository {
+
+    // Columns a caller may ask for; description and imageUrl are the heavy ones
+    List<String> SELECTABLE_FIELDS = List.of(
+            "id", "sku", "name", "description", "price", "stock", "category", "imageUrl", "version");
+
+    // One map per row, keyed by field name in the requested order
+    List<Map<String, Object>> findFields(Specification<Product> spec, List<String> fields);
+}
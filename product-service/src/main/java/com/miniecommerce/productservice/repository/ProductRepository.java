@@ -1,19 +1,74 @@
 package com.miniecommerce.productservice.repository;
 
 import com.miniecommerce.productservice.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    // Find products by category
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFieldsRepository {
+    // Find products by category (query cache; category changes go through JPA and invalidate it)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByCategory(String category);
 
+    boolean existsBySku(String sku);
+
     // Find products by name containing (case-insensitive search)
     List<Product> findByNameContainingIgnoreCase(String name);
 
+    // Paged name search, used when the full-text index is not available
+    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    String SEARCH_FULL_TEXT_WHERE =
+            "WHERE p.search_vector @@ to_tsquery('english', :tsQuery) OR lower(:keyword) <% lower(p.name) ";
+    String SEARCH_FULL_TEXT = "SELECT p.id FROM products p " + SEARCH_FULL_TEXT_WHERE
+            + "ORDER BY ts_rank_cd(p.search_vector, to_tsquery('english', :tsQuery)) DESC, "
+            + "word_similarity(lower(:keyword), lower(p.name)) DESC, p.id";
+    String SEARCH_FULL_TEXT_COUNT = "SELECT count(*) FROM products p " + SEARCH_FULL_TEXT_WHERE;
+
+    // Ranked full-text search over name, category and description (search_vector, GIN),
+    // plus trigram matching on the name so misspelled keywords still find products.
+    // Returns ids only: stock lives in the inventory table and is loaded with the entities.
+    // The statements are constants so ProductSearchBenchmark measures exactly these.
+    @Query(value = SEARCH_FULL_TEXT, countQuery = SEARCH_FULL_TEXT_COUNT, nativeQuery = true)
+    Page<Long> searchFullText(@Param("tsQuery") String tsQuery, @Param("keyword") String keyword,
+                              Pageable pageable);
+
+    // Every product's catalog and stock version, used to reconcile the disk snapshot at startup
+    List<ProductVersion> findAllProjectedBy();
+
+    // Lets conditional GETs be answered without loading the product (see Product.getRevision)
+    @Query("SELECT p.version + p.stockVersion FROM Product p WHERE p.id = :id")
+    Optional<Long> findRevisionById(@Param("id") Long id);
+
     // Find products with stock greater than zero
     List<Product> findByStockGreaterThan(Integer stock);
+
+    // Applies a stock delta in one statement against the inventory row only; returns nothing if the
+    // product is missing or the change would make stock negative, so oversell is rejected by the database
+    @Transactional
+    @Query(value = "UPDATE inventory SET stock = stock + :delta, version = version + 1 "
+            + "WHERE product_id = :id AND stock + :delta >= 0 RETURNING stock, version, CAST(:delta AS integer) AS delta",
+            nativeQuery = true)
+    Optional<InventoryLevel> adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    // Sets stock to an absolute value; returns nothing if the product is missing or already has that stock
+    @Transactional
+    @Query(value = "WITH previous AS (SELECT product_id, stock FROM inventory WHERE product_id = :id FOR UPDATE) "
+            + "UPDATE inventory i SET stock = :stock, version = i.version + 1 FROM previous p "
+            + "WHERE i.product_id = p.product_id AND p.stock <> :stock "
+            + "RETURNING i.stock, i.version, i.stock - p.stock AS delta", nativeQuery = true)
+    Optional<InventoryLevel> setStock(@Param("id") Long id, @Param("stock") int stock);
 }
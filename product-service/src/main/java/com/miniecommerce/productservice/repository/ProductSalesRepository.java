@@ -0,0 +1,19 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.ProductSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+
+    // Must run in the transaction that confirms the hold
+    @Modifying
+    @Query(value = "INSERT INTO product_sales (product_id, units_sold) VALUES (:productId, :units) "
+            + "ON CONFLICT (product_id) DO UPDATE SET units_sold = product_sales.units_sold + EXCLUDED.units_sold",
+            nativeQuery = true)
+    void addUnitsSold(@Param("productId") Long productId, @Param("units") long units);
+}
@@ -0,0 +1,10 @@
+package com.miniecommerce.productservice.repository;
+
+// Interface projection: only id and the two versions are selected
+public interface ProductVersion {
+    Long getId();
+
+    Long getVersion();
+
+    Long getStockVersion();
+}
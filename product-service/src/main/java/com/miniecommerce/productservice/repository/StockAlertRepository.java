@@ -0,0 +1,9 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.StockAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+}
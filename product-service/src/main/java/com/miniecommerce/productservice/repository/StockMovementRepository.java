@@ -0,0 +1,22 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Most recent movements first
+    List<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    // Sum of the movements after a snapshot (idx_stock_movements_product_id_id)
+    @Query("SELECT coalesce(sum(m.quantity), 0) AS quantity, max(m.id) AS lastMovementId FROM StockMovement m "
+            + "WHERE m.productId = :productId AND m.id > :afterId")
+    StockTail sumAfter(@Param("productId") Long productId, @Param("afterId") Long afterId);
+}
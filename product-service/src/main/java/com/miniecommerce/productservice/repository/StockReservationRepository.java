@@ -0,0 +1,38 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Lock the lines of holds so confirm, release and expiry cannot race
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.reservationId IN :reservationIds ORDER BY r.productId")
+    List<StockReservation> lockByReservationIds(@Param("reservationIds") Collection<String> reservationIds);
+
+    List<StockReservation> findByReservationId(String reservationId);
+
+    List<StockReservation> findByStatus(String status);
+
+    // Holds whose TTL has passed, oldest first, used to catch holds no running instance has indexed
+    @Query("SELECT r.reservationId FROM StockReservation r WHERE r.status = 'HELD' AND r.expiresAt < :now "
+            + "GROUP BY r.reservationId ORDER BY MIN(r.expiresAt)")
+    List<String> findExpiredReservationIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Held lines of a product being deleted: there is no stock left to give back
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = 'VOIDED' WHERE r.productId = :productId AND r.status = 'HELD'")
+    int voidHeldForProduct(@Param("productId") Long productId);
+}
@@ -0,0 +1,37 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    Optional<StockSnapshot> findFirstByProductIdOrderByLastMovementIdDesc(Long productId);
+
+    // Snapshots every product with movements since its last snapshot. One statement sees the
+    // inventory row and the movements of a committed stock change together, so each row is consistent.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stock_snapshots (product_id, stock, last_movement_id, taken_at) "
+            + "SELECT i.product_id, i.stock, m.last_id, now() FROM inventory i "
+            + "CROSS JOIN LATERAL (SELECT max(id) AS last_id FROM stock_movements WHERE product_id = i.product_id) m "
+            + "WHERE m.last_id > coalesce((SELECT max(last_movement_id) FROM stock_snapshots "
+            + "WHERE product_id = i.product_id), 0)", nativeQuery = true)
+    int snapshotChangedProducts();
+
+    // Opening snapshot for stock that predates the ledger: products with neither a snapshot nor
+    // any movement. Idempotent, so it is safe on every startup and on several instances.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stock_snapshots (product_id, stock, last_movement_id, taken_at) "
+            + "SELECT i.product_id, i.stock, 0, now() FROM inventory i "
+            + "WHERE NOT EXISTS (SELECT 1 FROM stock_snapshots s WHERE s.product_id = i.product_id) "
+            + "AND NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = i.product_id)", nativeQuery = true)
+    int seedOpeningSnapshots();
+}
@@ -0,0 +1,8 @@
+package com.miniecommerce.productservice.repository;
+
+// Interface projection of the ledger movements after a snapshot; lastMovementId is null when there are none
+public interface StockTail {
+    Long getQuantity();
+
+    Long getLastMovementId();
+}
@@ -0,0 +1,11 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    boolean existsByCode(String code);
+}
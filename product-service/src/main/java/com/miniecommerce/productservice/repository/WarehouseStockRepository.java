@@ -0,0 +1,40 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.entity.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+    List<WarehouseStock> findByProductId(Long productId);
+
+    @Modifying
+    @Query("DELETE FROM WarehouseStock w WHERE w.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    // Takes stock from one warehouse; returns nothing if the row is missing or would go negative
+    @Transactional
+    @Query(value = "UPDATE warehouse_stock SET stock = stock + :delta, version = version + 1 "
+            + "WHERE warehouse_id = :warehouseId AND product_id = :productId AND stock + :delta >= 0 "
+            + "RETURNING stock, version, CAST(:delta AS integer) AS delta", nativeQuery = true)
+    Optional<InventoryLevel> adjustStock(@Param("warehouseId") Long warehouseId, @Param("productId") Long productId,
+                                         @Param("delta") int delta);
+
+    // Adds stock to a warehouse, creating its row on the first restock
+    @Transactional
+    @Query(value = "INSERT INTO warehouse_stock (warehouse_id, product_id, stock, version) "
+            + "VALUES (:warehouseId, :productId, :quantity, 0) "
+            + "ON CONFLICT (product_id, warehouse_id) DO UPDATE "
+            + "SET stock = warehouse_stock.stock + EXCLUDED.stock, version = warehouse_stock.version + 1 "
+            + "RETURNING stock, version, CAST(:quantity AS integer) AS delta", nativeQuery = true)
+    InventoryLevel addStock(@Param("warehouseId") Long warehouseId, @Param("productId") Long productId,
+                            @Param("quantity") int quantity);
+}
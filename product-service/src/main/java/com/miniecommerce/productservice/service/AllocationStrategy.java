@@ -0,0 +1,34 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.AllocationRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Decides how an order quantity is split across warehouses. Implementations are Spring beans,
+// picked by name() from the allocation request.
+public interface AllocationStrategy {
+
+    String name();
+
+    // Units to take per warehouse id; the caller has checked the candidates hold at least quantity
+    Map<Long, Integer> split(int quantity, List<WarehouseAvailability> candidates, AllocationRequest request);
+
+    // Takes as much as possible from each warehouse in turn
+    static Map<Long, Integer> inOrder(int quantity, List<WarehouseAvailability> ordered) {
+        Map<Long, Integer> split = new LinkedHashMap<>();
+        int remaining = quantity;
+        for (WarehouseAvailability candidate : ordered) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(remaining, candidate.getAvailable());
+            if (taken > 0) {
+                split.put(candidate.getWarehouseId(), taken);
+                remaining -= taken;
+            }
+        }
+        return split;
+    }
+}
@@ -0,0 +1,45 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.AllocationRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Takes from the fullest warehouses first, bringing them down towards the next level,
+// so stock stays spread evenly across locations
+@Component
+public class BalanceLoadStrategy implements AllocationStrategy {
+
+    @Override
+    public String name() {
+        return "balance-load";
+    }
+
+    @Override
+    public Map<Long, Integer> split(int quantity, List<WarehouseAvailability> candidates, AllocationRequest request) {
+        // [warehouseId, units left]
+        PriorityQueue<long[]> fullest = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(entry -> -entry[1]).thenComparingLong(entry -> entry[0]));
+        candidates.forEach(candidate -> fullest.add(new long[]{candidate.getWarehouseId(), candidate.getAvailable()}));
+
+        Map<Long, Integer> split = new LinkedHashMap<>();
+        int remaining = quantity;
+        while (remaining > 0 && !fullest.isEmpty()) {
+            long[] top = fullest.poll();
+            long nextLevel = fullest.isEmpty() ? 0 : fullest.peek()[1];
+            // Down to the next warehouse's level in one step, at least one unit
+            int taken = (int) Math.min(remaining, Math.max(1, top[1] - nextLevel));
+            split.merge(top[0], taken, Integer::sum);
+            remaining -= taken;
+            top[1] -= taken;
+            if (top[1] > 0) {
+                fullest.add(top);
+            }
+        }
+        return split;
+    }
+}
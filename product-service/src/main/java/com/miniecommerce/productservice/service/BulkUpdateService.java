@@ -0,0 +1,389 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.BulkUpdateError;
+import com.miniecommerce.productservice.dto.BulkUpdateRequest;
+import com.miniecommerce.productservice.dto.BulkUpdateStatus;
+import com.miniecommerce.productservice.dto.CategoryPriceChange;
+import com.miniecommerce.productservice.dto.ProductChange;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.exception.ResourceNotFoundException;
+import com.miniecommerce.productservice.kafka.ProductStateProducer;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+// Asynchronous bulk price and stock changes. Each rule is applied in chunks of products, one
+// transaction and a few set-based statements per chunk instead of a load and save per product.
+// Changed products are published as state snapshots in batches, each product once per batch
+// with its latest state, however many chunks touched it.
+@Service
+@Slf4j
+public class BulkUpdateService {
+
+    private static final int MAX_JOBS = 50;
+
+    private static final String COUNT_CATEGORY = "SELECT count(*) FROM products WHERE category = ?";
+    // Keyset over the category, so each chunk starts where the previous one ended
+    private static final String CATEGORY_CHUNK =
+            "SELECT id FROM products WHERE category = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String REPRICE = "UPDATE products SET price = round(price * ?, 2), version = version + 1 "
+            + "WHERE id = ANY(?) AND category = ? AND price <> round(price * ?, 2) RETURNING id";
+    private static final String EXISTING = "SELECT id FROM products WHERE id = ANY(?)";
+    private static final String SET_PRICES = "UPDATE products p SET price = c.price, version = p.version + 1 "
+            + "FROM unnest(?, ?) AS c(id, price) WHERE p.id = c.id AND p.price <> c.price RETURNING p.id";
+    // Taken before SET_STOCK so the stock it reads as previous cannot change under it
+    private static final String LOCK_INVENTORY =
+            "SELECT product_id FROM inventory WHERE product_id = ANY(?) ORDER BY product_id FOR UPDATE";
+    private static final String SET_STOCK = "WITH target AS ("
+            + "SELECT * FROM unnest(?, ?) AS t(id, stock)"
+            + "), previous AS ("
+            + "SELECT i.product_id, i.stock FROM inventory i JOIN target t ON t.id = i.product_id"
+            + "), changed AS ("
+            + "UPDATE inventory i SET stock = t.stock, version = i.version + 1 FROM target t "
+            + "WHERE i.product_id = t.id AND i.stock <> t.stock RETURNING i.product_id, i.stock"
+            + "), ledger AS ("
+            + "INSERT INTO stock_movements (product_id, quantity, reason, created_at) "
+            + "SELECT c.product_id, c.stock - p.stock, '" + StockLedgerService.BULK_UPDATE + "', now() "
+            + "FROM changed c JOIN previous p ON p.product_id = c.product_id"
+            + ") "
+            + "SELECT product_id FROM changed";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final FlashSaleService flashSaleService;
+    private final ProductStateProducer productStateProducer;
+    private final ProductFacetIndex productFacetIndex;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockAlertService stockAlertService;
+    private final Executor bulkUpdateExecutor;
+    private final int chunkSize;
+    private final int eventBatchSize;
+    private final int maxErrors;
+
+    private final Timer chunkTimer;
+
+    // Most recent jobs, queued, running or finished
+    private final Map<String, BulkJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BulkJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    });
+
+    public BulkUpdateService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ProductRepository productRepository,
+                             ProductCacheEvictor productCacheEvictor,
+                             FlashSaleService flashSaleService,
+                             ProductStateProducer productStateProducer,
+                             ProductFacetIndex productFacetIndex,
+                             CatalogSnapshotService catalogSnapshotService,
+                             StockAlertService stockAlertService,
+                             @Qualifier("bulkUpdateExecutor") Executor bulkUpdateExecutor,
+                             @Value("${product.bulk-update.chunk-size:500}") int chunkSize,
+                             @Value("${product.bulk-update.event-batch-size:1000}") int eventBatchSize,
+                             @Value("${product.bulk-update.max-errors:1000}") int maxErrors,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productRepository = productRepository;
+        this.productCacheEvictor = productCacheEvictor;
+        this.flashSaleService = flashSaleService;
+        this.productStateProducer = productStateProducer;
+        this.productFacetIndex = productFacetIndex;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockAlertService = stockAlertService;
+        this.bulkUpdateExecutor = bulkUpdateExecutor;
+        this.chunkSize = chunkSize;
+        this.eventBatchSize = eventBatchSize;
+        this.maxErrors = maxErrors;
+
+        this.chunkTimer = Timer.builder("product.bulk-update.chunk")
+                .description("Time to apply one chunk of a bulk price or stock update")
+                .register(meterRegistry);
+    }
+
+    // Returns at once with the queued job; progress is read back through getStatus
+    public BulkUpdateStatus submit(BulkUpdateRequest request) {
+        if (request.getCategoryPriceChanges() == null || request.getProductChanges() == null
+                || request.getCategoryPriceChanges().contains(null) || request.getProductChanges().contains(null)) {
+            throw new BadRequestException("categoryPriceChanges and productChanges must be lists without nulls");
+        }
+        if (request.getCategoryPriceChanges().isEmpty() && request.getProductChanges().isEmpty()) {
+            throw new BadRequestException("At least one category price change or product change is required");
+        }
+
+        BulkJob job = new BulkJob(maxErrors);
+        jobs.put(job.id, job);
+        try {
+            bulkUpdateExecutor.execute(() -> run(job, request));
+        } catch (TaskRejectedException e) {
+            job.finish("FAILED", "Too many bulk updates queued; try again later");
+        }
+        return job.status();
+    }
+
+    public BulkUpdateStatus getStatus(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk update", "id", jobId);
+        }
+        return job.status();
+    }
+
+    public List<BulkUpdateStatus> getStatuses() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(BulkJob::status).toList();
+        }
+    }
+
+    private void run(BulkJob job, BulkUpdateRequest request) {
+        job.start();
+        log.info("Starting bulk update {}: {} category price changes, {} product changes", job.id,
+                request.getCategoryPriceChanges().size(), request.getProductChanges().size());
+
+        // Latest committed state of changed products not yet published
+        Map<Long, Product> unpublished = new LinkedHashMap<>();
+        try {
+            Map<Long, ProductChange> changes = merge(request.getProductChanges());
+            long total = changes.size();
+            for (CategoryPriceChange change : request.getCategoryPriceChanges()) {
+                total += jdbcTemplate.queryForObject(COUNT_CATEGORY, Long.class, change.getCategory());
+            }
+            job.total(total);
+
+            for (CategoryPriceChange change : request.getCategoryPriceChanges()) {
+                repriceCategory(job, change, unpublished);
+            }
+            List<ProductChange> ordered = new ArrayList<>(changes.values());
+            for (int from = 0; from < ordered.size(); from += chunkSize) {
+                applyProductChanges(job, ordered.subList(from, Math.min(from + chunkSize, ordered.size())), unpublished);
+            }
+            job.finish("COMPLETED", null);
+        } catch (Exception e) {
+            log.error("❌ Bulk update {} failed: {}", job.id, e.getMessage());
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            // Chunks committed before a failure stay applied, so they are still published
+            publish(unpublished);
+        }
+
+        BulkUpdateStatus status = job.status();
+        log.info("Bulk update {} {}: {} of {} products processed, {} updated, {} failed", status.getId(),
+                status.getStatus(), status.getProductsProcessed(), status.getProductsTotal(),
+                status.getProductsUpdated(), status.getProductsFailed());
+    }
+
+    private void repriceCategory(BulkJob job, CategoryPriceChange change, Map<Long, Product> unpublished) {
+        BigDecimal factor = BigDecimal.ONE.add(change.getPercentage().movePointLeft(2));
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(CATEGORY_CHUNK, Long.class, change.getCategory(), after, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+
+            applyChunk(job, ids, unpublished, eligible -> jdbcTemplate.query(REPRICE, ps -> {
+                ps.setBigDecimal(1, factor);
+                ps.setArray(2, bigints(ps, eligible));
+                ps.setString(3, change.getCategory());
+                ps.setBigDecimal(4, factor);
+            }, (rs, row) -> rs.getLong(1)));
+        } while (ids.size() == chunkSize);
+    }
+
+    private void applyProductChanges(BulkJob job, List<ProductChange> chunk, Map<Long, Product> unpublished) {
+        List<Long> requested = chunk.stream().map(ProductChange::getProductId).toList();
+        Set<Long> existing = new HashSet<>(jdbcTemplate.query(EXISTING,
+                ps -> ps.setArray(1, bigints(ps, requested)), (rs, row) -> rs.getLong(1)));
+        List<Long> found = new ArrayList<>();
+        for (Long id : requested) {
+            if (existing.contains(id)) {
+                found.add(id);
+            } else {
+                job.failed(id, "Product not found");
+            }
+        }
+
+        applyChunk(job, found, unpublished, eligible -> {
+            List<ProductChange> prices = chunk.stream()
+                    .filter(change -> eligible.contains(change.getProductId()) && change.getPrice() != null)
+                    .toList();
+            List<ProductChange> stocks = chunk.stream()
+                    .filter(change -> eligible.contains(change.getProductId()) && change.getStock() != null)
+                    .toList();
+
+            Set<Long> changed = new HashSet<>();
+            if (!prices.isEmpty()) {
+                changed.addAll(jdbcTemplate.query(SET_PRICES, ps -> {
+                    ps.setArray(1, bigints(ps, prices.stream().map(ProductChange::getProductId).toList()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("numeric",
+                            prices.stream().map(ProductChange::getPrice).toArray()));
+                }, (rs, row) -> rs.getLong(1)));
+            }
+            if (!stocks.isEmpty()) {
+                List<Long> stockIds = stocks.stream().map(ProductChange::getProductId).toList();
+                jdbcTemplate.query(LOCK_INVENTORY, ps -> ps.setArray(1, bigints(ps, stockIds)), (rs, row) -> null);
+                changed.addAll(jdbcTemplate.query(SET_STOCK, ps -> {
+                    ps.setArray(1, bigints(ps, stockIds));
+                    ps.setArray(2, ps.getConnection().createArrayOf("integer",
+                            stocks.stream().map(ProductChange::getStock).toArray()));
+                }, (rs, row) -> rs.getLong(1)));
+            }
+            return new ArrayList<>(changed);
+        });
+    }
+
+    // Runs the chunk's statements in one transaction on the products not in a flash sale; a failing
+    // chunk marks all its products failed
+    private void applyChunk(BulkJob job, List<Long> ids, Map<Long, Product> unpublished,
+                            Function<Set<Long>, List<Long>> statements) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start();
+        List<Long> inFlashSale = new ArrayList<>();
+        List<Product> changed;
+        try {
+            changed = transactionTemplate.execute(status -> {
+                // Checked inside the transaction so a sale started since the chunk was read is still skipped
+                Set<Long> eligible = new LinkedHashSet<>(ids);
+                ids.stream().filter(id -> flashSaleService.find(id).isPresent()).forEach(inFlashSale::add);
+                inFlashSale.forEach(eligible::remove);
+                if (eligible.isEmpty()) {
+                    return List.<Product>of();
+                }
+
+                // Plain SQL: evict before it runs and again once the chunk's transaction ends
+                productCacheEvictor.evictProducts(eligible);
+                List<Long> changedIds = statements.apply(eligible);
+                productCacheEvictor.evictProductsAfterCompletion(changedIds);
+                return changedIds.isEmpty() ? List.<Product>of() : productRepository.findAllById(changedIds);
+            });
+        } catch (Exception e) {
+            String message = "Could not update: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            ids.forEach(id -> job.failed(id, message));
+            sample.stop(chunkTimer);
+            return;
+        }
+        // Flash-sale products keep their stock in memory until the sale stops; they are left alone
+        inFlashSale.forEach(id -> job.failed(id,
+                "Product is in flash-sale mode; stop the flash sale before updating it"));
+        job.processed(ids.size() - inFlashSale.size(), changed.size());
+
+        for (Product product : changed) {
+            productFacetIndex.put(product);
+            catalogSnapshotService.put(product);
+            stockAlertService.onStockChange(product);
+            unpublished.put(product.getId(), product);
+        }
+        if (unpublished.size() >= eventBatchSize) {
+            publish(unpublished);
+        }
+        sample.stop(chunkTimer);
+    }
+
+    private void publish(Map<Long, Product> unpublished) {
+        productStateProducer.sendSnapshots(new ArrayList<>(unpublished.values()));
+        unpublished.clear();
+    }
+
+    // Several changes for the same product are combined; later non-null fields win
+    private static Map<Long, ProductChange> merge(List<ProductChange> changes) {
+        Map<Long, ProductChange> merged = new TreeMap<>();
+        for (ProductChange change : changes) {
+            merged.merge(change.getProductId(), change, (earlier, later) -> new ProductChange(later.getProductId(),
+                    later.getPrice() != null ? later.getPrice() : earlier.getPrice(),
+                    later.getStock() != null ? later.getStock() : earlier.getStock()));
+        }
+        return merged;
+    }
+
+    private static Array bigints(PreparedStatement ps, Collection<Long> ids) throws SQLException {
+        return ps.getConnection().createArrayOf("bigint", ids.toArray());
+    }
+
+    private static final class BulkJob {
+        private final String id = UUID.randomUUID().toString();
+        private final int maxErrors;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<BulkUpdateError> errors = new ArrayList<>();
+        private String status = "QUEUED";
+        private long productsTotal;
+        private long productsProcessed;
+        private long productsUpdated;
+        private long productsFailed;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        private BulkJob(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private synchronized void start() {
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        private synchronized void total(long total) {
+            productsTotal = total;
+        }
+
+        private synchronized void processed(long processed, long updated) {
+            productsProcessed += processed;
+            productsUpdated += updated;
+        }
+
+        private synchronized void failed(Long productId, String error) {
+            productsProcessed++;
+            productsFailed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkUpdateError(productId, error));
+            }
+        }
+
+        private synchronized void finish(String status, String message) {
+            this.status = status;
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized BulkUpdateStatus status() {
+            return new BulkUpdateStatus(id, status, productsTotal, productsProcessed, productsUpdated, productsFailed,
+                    List.copyOf(errors), message, submittedAt, startedAt, finishedAt);
+        }
+    }
+}
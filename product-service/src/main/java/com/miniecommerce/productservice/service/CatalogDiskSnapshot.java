@@ -0,0 +1,159 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+// Compact binary copy of the catalog in a local memory-mapped file, so a restarted
+// instance can warm its in-memory indexes without reading every product from Postgres.
+//
+// Layout: magic, format, count, then per product id, version, stock version, sku, name, description, price
+// (scale + unscaled bytes), stock, category, imageUrl; a CRC32 of everything before it ends the file.
+@Component
+@Slf4j
+public class CatalogDiskSnapshot {
+
+    private static final int MAGIC = 0x50524f44;  // "PROD"
+    private static final int FORMAT = 3;
+
+    private final Path path;
+
+    public CatalogDiskSnapshot(@Value("${product.catalog.disk-snapshot.path:${java.io.tmpdir}/product-catalog.snapshot}") String path) {
+        this.path = Path.of(path);
+    }
+
+    // Written to a temporary file first and moved into place, so a crash never leaves a torn snapshot
+    public void write(List<Product> products) throws IOException {
+        byte[] content = encode(products);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.createDirectories(path.toAbsolutePath().getParent());
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, content.length);
+            buffer.put(content);
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote catalog disk snapshot with {} products ({} bytes) to {}", products.size(), content.length, path);
+    }
+
+    // Empty when there is no snapshot or it cannot be trusted
+    public Optional<List<Product>> read() {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(decode(buffer));
+        } catch (Exception e) {
+            log.warn("⚠️ Ignoring catalog disk snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] encode(List<Product> products) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(products.size() * 128 + 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeInt(products.size());
+        for (Product product : products) {
+            out.writeLong(product.getId());
+            out.writeLong(product.getVersion() != null ? product.getVersion() : 0L);
+            out.writeLong(product.getStockVersion() != null ? product.getStockVersion() : 0L);
+            writeString(out, product.getSku());
+            writeString(out, product.getName());
+            writeString(out, product.getDescription());
+            byte[] unscaled = product.getPrice().unscaledValue().toByteArray();
+            out.writeInt(product.getPrice().scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+            out.writeInt(product.getStock());
+            writeString(out, product.getCategory());
+            writeString(out, product.getImageUrl());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private List<Product> decode(MappedByteBuffer buffer) {
+        int length = buffer.limit();
+        if (length < 20) {
+            throw new IllegalStateException("file too short");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(length - Long.BYTES));
+        if (crc.getValue() != buffer.getLong(length - Long.BYTES)) {
+            throw new IllegalStateException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            throw new IllegalStateException("unknown format");
+        }
+
+        int count = buffer.getInt();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setId(buffer.getLong());
+            product.setVersion(buffer.getLong());
+            product.setStockVersion(buffer.getLong());
+            product.setSku(readString(buffer));
+            product.setName(readString(buffer));
+            product.setDescription(readString(buffer));
+            int scale = buffer.getInt();
+            byte[] unscaled = new byte[buffer.get()];
+            buffer.get(unscaled);
+            product.setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+            product.setStock(buffer.getInt());
+            product.setCategory(readString(buffer));
+            product.setImageUrl(readString(buffer));
+            products.add(product);
+        }
+        return products;
+    }
+
+    // Length-prefixed UTF-8; -1 marks null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
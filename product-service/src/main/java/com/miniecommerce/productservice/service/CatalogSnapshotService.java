@@ -0,0 +1,229 @@
+package com.miniecommerce.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.productservice.entity.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.miniecommerce.productservice.service.TransactionHooks.afterCommit;
+
+// Immutable copy of the catalog with every product already serialized to JSON.
+// Changes are queued and folded into a new snapshot on a short interval, which is then
+// swapped in atomically; list endpoints copy bytes out of the current snapshot.
+// products() reads the live entries, so it may mix states from either side of a refresh.
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Current entries by id and by category, changed only by load and refresh
+    private final Map<Long, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<Long, Entry>> categories = new HashMap<>();
+    // Latest committed state per changed product; empty means deleted
+    private final Map<Long, Optional<Product>> pending = new ConcurrentHashMap<>();
+
+    public CatalogSnapshotService(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("product.catalog.snapshot.bytes", current,
+                        ref -> ref.get() == null ? 0 : ref.get().all.length)
+                .description("Size of the serialized catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("product.catalog.snapshot.pending", pending, Map::size)
+                .description("Product changes not yet folded into the catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    // Called once at startup by CatalogWarmup
+    public synchronized void load(List<Product> products) {
+        entries.clear();
+        categories.clear();
+        products.forEach(product -> add(toEntry(product)));
+
+        Map<String, byte[]> byCategory = new HashMap<>();
+        categories.forEach((category, members) -> byCategory.put(category, jsonArray(members.values())));
+        current.set(new Snapshot(jsonArray(entries.values()), availableJson(), byCategory));
+        log.info("Built catalog snapshot with {} products", entries.size());
+    }
+
+    // The products in the catalog, in id order; empty until it is built
+    public List<Product> products() {
+        return entries.values().stream().map(entry -> entry.product).toList();
+    }
+
+    // Empty until the first snapshot is built; callers then read the database instead
+    public Optional<byte[]> allProducts() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? Optional.empty() : Optional.of(snapshot.all);
+    }
+
+    public Optional<byte[]> availableProducts() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? Optional.empty() : Optional.of(snapshot.available);
+    }
+
+    public Optional<byte[]> productsByCategory(String category) {
+        Snapshot snapshot = current.get();
+        return snapshot == null
+                ? Optional.empty()
+                : Optional.of(snapshot.byCategory.getOrDefault(category, EMPTY_ARRAY));
+    }
+
+    public void put(Product product) {
+        afterCommit(() -> pending.put(product.getId(), Optional.of(product)));
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> pending.put(productId, Optional.empty()));
+    }
+
+    // Folds queued changes into a new snapshot. Serialized products are reused, and only the views
+    // the changed products were or are now part of are joined again; the rest keep their bytes.
+    @Scheduled(fixedDelayString = "${product.catalog.snapshot.refresh-interval-ms:250}")
+    public synchronized void refresh() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null || pending.isEmpty()) {
+            return;
+        }
+
+        boolean availableChanged = false;
+        Set<String> changedCategories = new HashSet<>();
+        for (Long id : new ArrayList<>(pending.keySet())) {
+            Optional<Product> change = pending.remove(id);
+            if (change == null) {
+                continue;
+            }
+
+            // Keep the newer state if an older update was queued after a newer one
+            Entry existing = entries.get(id);
+            if (change.isPresent() && existing != null && change.get().getRevision() < existing.revision) {
+                continue;
+            }
+            if (existing != null) {
+                removeEntry(existing);
+                availableChanged |= existing.inStock;
+                changedCategories.add(existing.category);
+            }
+            if (change.isPresent()) {
+                Entry entry = toEntry(change.get());
+                add(entry);
+                availableChanged |= entry.inStock;
+                changedCategories.add(entry.category);
+            }
+        }
+
+        Map<String, byte[]> byCategory = new HashMap<>(snapshot.byCategory);
+        for (String category : changedCategories) {
+            if (category == null) {
+                continue;
+            }
+            Map<Long, Entry> members = categories.get(category);
+            if (members == null) {
+                byCategory.remove(category);
+            } else {
+                byCategory.put(category, jsonArray(members.values()));
+            }
+        }
+        current.set(new Snapshot(jsonArray(entries.values()),
+                availableChanged ? availableJson() : snapshot.available, byCategory));
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.product.getId(), entry);
+        if (entry.category != null) {
+            categories.computeIfAbsent(entry.category, c -> new TreeMap<>()).put(entry.product.getId(), entry);
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        entries.remove(entry.product.getId());
+        if (entry.category != null) {
+            Map<Long, Entry> members = categories.get(entry.category);
+            members.remove(entry.product.getId());
+            if (members.isEmpty()) {
+                categories.remove(entry.category);
+            }
+        }
+    }
+
+    private byte[] availableJson() {
+        return jsonArray(entries.values().stream().filter(entry -> entry.inStock).toList());
+    }
+
+    private Entry toEntry(Product product) {
+        try {
+            return new Entry(product, product.getCategory(), product.getStock() != null && product.getStock() > 0,
+                    product.getRevision(), objectMapper.writeValueAsBytes(product));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+
+    private static byte[] jsonArray(Collection<Entry> elements) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        boolean first = true;
+        for (Entry element : elements) {
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(element.json);
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private static final class Entry {
+        private final Product product;
+        private final String category;
+        private final boolean inStock;
+        private final long revision;
+        private final byte[] json;
+
+        private Entry(Product product, String category, boolean inStock, long revision, byte[] json) {
+            this.product = product;
+            this.category = category;
+            this.inStock = inStock;
+            this.revision = revision;
+            this.json = json;
+        }
+    }
+
+    // Never modified after construction
+    private static final class Snapshot {
+        private final byte[] all;
+        private final byte[] available;
+        private final Map<String, byte[]> byCategory;
+
+        private Snapshot(byte[] all, byte[] available, Map<String, byte[]> byCategory) {
+            this.all = all;
+            this.available = available;
+            this.byCategory = Collections.unmodifiableMap(byCategory);
+        }
+    }
+}
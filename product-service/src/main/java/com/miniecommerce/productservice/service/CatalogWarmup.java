@@ -0,0 +1,103 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import com.miniecommerce.productservice.repository.ProductVersion;
+import com.miniecommerce.productservice.repository.WarehouseRepository;
+import com.miniecommerce.productservice.repository.WarehouseStockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Fills the in-memory catalog structures once, before the web server starts and before the
+// instance registers with Eureka (both happen in lifecycle start, after singletons are ready).
+// Prefers the disk snapshot and reads from Postgres only the products that changed since.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogWarmup implements SmartInitializingSingleton {
+
+    private static final int FETCH_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final CatalogDiskSnapshot catalogDiskSnapshot;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final WarehouseAvailabilityIndex warehouseAvailabilityIndex;
+    private final StockAlertService stockAlertService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.currentTimeMillis();
+        List<Product> products = catalogDiskSnapshot.read()
+                .map(this::reconcile)
+                .orElseGet(productRepository::findAll);
+
+        catalogSnapshotService.load(products);
+        productSuggestionIndex.load(products);
+        productFacetIndex.load(products);
+        stockAlertService.load(products);
+        warehouseAvailabilityIndex.load(warehouseRepository.findAll(), warehouseStockRepository.findAll());
+        log.info("Catalog warm-up finished with {} products in {} ms",
+                products.size(), System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(initialDelayString = "${product.catalog.disk-snapshot.interval-ms:60000}",
+            fixedDelayString = "${product.catalog.disk-snapshot.interval-ms:60000}")
+    public void writeSnapshot() {
+        try {
+            List<Product> products = catalogSnapshotService.products();
+            if (!products.isEmpty()) {
+                catalogDiskSnapshot.write(products);
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to write catalog disk snapshot: {}", e.getMessage());
+        }
+    }
+
+    // Leave the freshest possible snapshot for the next start
+    @PreDestroy
+    public void writeSnapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    // Keeps snapshot rows whose catalog and stock versions still match, reloads changed and new ones, drops deleted ones
+    private List<Product> reconcile(List<Product> snapshot) {
+        Map<Long, Product> snapshotById = new HashMap<>();
+        snapshot.forEach(product -> snapshotById.put(product.getId(), product));
+
+        List<Product> products = new ArrayList<>(snapshot.size());
+        List<Long> changed = new ArrayList<>();
+        for (ProductVersion current : productRepository.findAllProjectedBy()) {
+            Product cached = snapshotById.get(current.getId());
+            if (cached != null && Objects.equals(cached.getVersion(), current.getVersion())
+                    && Objects.equals(cached.getStockVersion(), current.getStockVersion())) {
+                products.add(cached);
+                snapshotById.remove(current.getId());
+            } else {
+                changed.add(current.getId());
+            }
+        }
+
+        for (int from = 0; from < changed.size(); from += FETCH_BATCH_SIZE) {
+            products.addAll(productRepository.findAllById(
+                    changed.subList(from, Math.min(from + FETCH_BATCH_SIZE, changed.size()))));
+        }
+        int reused = snapshot.size() - snapshotById.size();
+        log.info("Reconciled catalog disk snapshot: {} products reused, {} reloaded from the database",
+                reused, products.size() - reused);
+        return products;
+    }
+}
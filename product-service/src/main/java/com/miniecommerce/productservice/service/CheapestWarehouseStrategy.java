@@ -0,0 +1,29 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.AllocationRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Ships from the warehouses with the lowest per-unit shipping cost; on a tie, the one
+// that can cover more of the quantity, to avoid splitting the shipment
+@Component
+public class CheapestWarehouseStrategy implements AllocationStrategy {
+
+    @Override
+    public String name() {
+        return "cheapest";
+    }
+
+    @Override
+    public Map<Long, Integer> split(int quantity, List<WarehouseAvailability> candidates, AllocationRequest request) {
+        List<WarehouseAvailability> ordered = candidates.stream()
+                .sorted(Comparator.comparing(WarehouseAvailability::getShippingCost)
+                        .thenComparing(WarehouseAvailability::getAvailable, Comparator.reverseOrder())
+                        .thenComparing(WarehouseAvailability::getWarehouseId))
+                .toList();
+        return AllocationStrategy.inOrder(quantity, ordered);
+    }
+}
@@ -0,0 +1,115 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.entity.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registry of products in flash-sale mode. Their stock is served from an in-memory
+// striped pool and sold units reach the database in periodic batches.
+// The pool belongs to this instance, so a flash sale expects one product-service replica
+// (or sticky routing of the SKU) to own the product while it runs.
+@Service
+@Slf4j
+public class FlashSaleService {
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Product> products = new ConcurrentHashMap<>();
+    private final int stripeCount;
+
+    private final Counter unitsTaken;
+    private final Counter requestsRejected;
+    private final Counter unitsOversold;
+
+    public FlashSaleService(MeterRegistry meterRegistry,
+                            @Value("${product.flash-sale.stripes:16}") int stripeCount) {
+        this.stripeCount = stripeCount;
+
+        this.unitsTaken = Counter.builder("product.flashsale.units.sold")
+                .description("Units handed out from flash-sale stock pools")
+                .register(meterRegistry);
+        this.requestsRejected = Counter.builder("product.flashsale.rejected")
+                .description("Flash-sale stock requests rejected for insufficient stock")
+                .register(meterRegistry);
+        this.unitsOversold = Counter.builder("product.flashsale.units.oversold")
+                .description("Units sold from flash-sale pools that the database no longer had; alert on any increase")
+                .register(meterRegistry);
+        Gauge.builder("product.flashsale.active", counters, Map::size)
+                .description("Products currently in flash-sale mode")
+                .register(meterRegistry);
+    }
+
+    public StripedStockCounter start(Product product) {
+        StripedStockCounter counter = new StripedStockCounter(product.getStock(), stripeCount);
+        if (counters.putIfAbsent(product.getId(), counter) != null) {
+            return counters.get(product.getId());
+        }
+        products.put(product.getId(), product);
+        log.info("⚡ Flash sale started for product {} with {} units", product.getId(), product.getStock());
+        return counter;
+    }
+
+    public Optional<StripedStockCounter> stop(Long productId) {
+        StripedStockCounter counter = counters.remove(productId);
+        products.remove(productId);
+        if (counter != null) {
+            log.info("Flash sale stopped for product {} with {} units left", productId, counter.remaining());
+        }
+        return Optional.ofNullable(counter);
+    }
+
+    public Optional<StripedStockCounter> find(Long productId) {
+        return Optional.ofNullable(counters.get(productId));
+    }
+
+    public boolean tryTake(StripedStockCounter counter, int quantity) {
+        boolean taken = counter.tryTake(quantity);
+        if (taken) {
+            unitsTaken.increment(quantity);
+        } else {
+            requestsRejected.increment();
+        }
+        return taken;
+    }
+
+    // Units a flush could not write because stock was also taken outside the pool
+    public void recordOversold(long units) {
+        if (units > 0) {
+            unitsOversold.increment(units);
+        }
+    }
+
+    // Product as of the last flush, with the live pool size as stock; avoids a database read per sale
+    public Product view(Long productId, StripedStockCounter counter) {
+        Product template = products.get(productId);
+        Product view = new Product();
+        if (template != null) {
+            view.setId(template.getId());
+            view.setSku(template.getSku());
+            view.setName(template.getName());
+            view.setDescription(template.getDescription());
+            view.setPrice(template.getPrice());
+            view.setCategory(template.getCategory());
+            view.setImageUrl(template.getImageUrl());
+            view.setVersion(template.getVersion());
+            view.setStockVersion(template.getStockVersion());
+        }
+        view.setStock(counter.remaining());
+        return view;
+    }
+
+    public void refresh(Product product) {
+        products.computeIfPresent(product.getId(), (id, current) -> product);
+    }
+
+    public Map<Long, StripedStockCounter> activeSales() {
+        return counters;
+    }
+}
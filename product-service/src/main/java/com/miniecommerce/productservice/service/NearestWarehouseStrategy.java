@@ -0,0 +1,47 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.AllocationRequest;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Ships from the warehouses closest to the delivery location; warehouses without a location go last
+@Component
+public class NearestWarehouseStrategy implements AllocationStrategy {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    @Override
+    public String name() {
+        return "nearest";
+    }
+
+    @Override
+    public Map<Long, Integer> split(int quantity, List<WarehouseAvailability> candidates, AllocationRequest request) {
+        if (request.getLatitude() == null || request.getLongitude() == null) {
+            throw new BadRequestException("latitude and longitude are required for the nearest strategy");
+        }
+        List<WarehouseAvailability> ordered = candidates.stream()
+                .sorted(Comparator.comparingDouble((WarehouseAvailability candidate) ->
+                                distanceKm(request.getLatitude(), request.getLongitude(), candidate))
+                        .thenComparing(WarehouseAvailability::getWarehouseId))
+                .toList();
+        return AllocationStrategy.inOrder(quantity, ordered);
+    }
+
+    // Great-circle (haversine) distance
+    private static double distanceKm(double latitude, double longitude, WarehouseAvailability candidate) {
+        if (candidate.getLatitude() == null || candidate.getLongitude() == null) {
+            return Double.MAX_VALUE;
+        }
+        double dLat = Math.toRadians(candidate.getLatitude() - latitude);
+        double dLon = Math.toRadians(candidate.getLongitude() - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(candidate.getLatitude()))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,55 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+// Native and JDBC writes to products and inventory are neither applied to Hibernate's caches nor
+// soft-lock them. Callers evict before the statement runs and again once the transaction ends,
+// so a row re-cached by a read in between lives no longer than the transaction.
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // For single-product stock updates: cached query results hold ids only, so they stay valid
+    public void evictProduct(Long id) {
+        entityManagerFactory.getCache().evict(Product.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(Product.class, id);
+                }
+            });
+        }
+    }
+
+    // For set-based writes that may change catalog columns: drops the cached query results
+    // (e.g. products by category) as well
+    public void evictProducts(Collection<Long> ids) {
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Product.class, id));
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion();
+    }
+
+    public void evictProductsAfterCompletion(Collection<Long> ids) {
+        List<Long> snapshot = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictProducts(snapshot);
+                }
+            });
+        } else {
+            evictProducts(snapshot);
+        }
+    }
+}
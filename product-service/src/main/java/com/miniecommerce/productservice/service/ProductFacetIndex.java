@@ -0,0 +1,157 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.ProductFacets;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.miniecommerce.productservice.service.TransactionHooks.afterCommit;
+
+// Facet counts kept in memory: one counter per (category, price band, in stock) combination,
+// moved as products are created, updated, restocked or sold. A facets request only walks
+// those combinations, never the products table.
+@Service
+@Slf4j
+public class ProductFacetIndex {
+
+    public static final String UNCATEGORIZED = "uncategorized";
+    public static final String IN_STOCK = "IN_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+
+    private final BigDecimal[] bandLimits;
+    private final List<String> bandLabels;
+
+    private final Map<Long, FacetKey> products = new HashMap<>();
+    private final Map<Long, Long> versions = new HashMap<>();
+    private final Map<FacetKey, Long> counts = new HashMap<>();
+
+    public ProductFacetIndex(@Value("${product.facets.price-bands:25,50,100,250,500}") BigDecimal[] bandLimits) {
+        this.bandLimits = bandLimits.clone();
+        Arrays.sort(this.bandLimits);
+        this.bandLabels = labels(this.bandLimits);
+    }
+
+    // Called once at startup by CatalogWarmup
+    public void load(List<Product> products) {
+        products.forEach(this::apply);
+        log.info("Loaded {} products into the facet index", products.size());
+    }
+
+    // Counts move only once the change has committed, so a rolled-back write never shows up
+    public void put(Product product) {
+        afterCommit(() -> apply(product));
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> forget(productId));
+    }
+
+    // Adds the product or moves it to its new combination; updates arriving out of order are ignored
+    private synchronized void apply(Product product) {
+        Long known = versions.get(product.getId());
+        if (known != null && product.getRevision() < known) {
+            return;
+        }
+        versions.put(product.getId(), product.getRevision());
+
+        FacetKey key = new FacetKey(
+                product.getCategory() != null ? product.getCategory() : UNCATEGORIZED,
+                bandOf(product.getPrice()),
+                product.getStock() != null && product.getStock() > 0);
+
+        FacetKey previous = products.put(product.getId(), key);
+        if (!key.equals(previous)) {
+            decrement(previous);
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private synchronized void forget(Long productId) {
+        versions.remove(productId);
+        decrement(products.remove(productId));
+    }
+
+    // Each facet is counted with every filter except its own, so the UI can show the
+    // alternatives for the dimension the user is currently narrowing
+    public synchronized ProductFacets facets(String category, String priceBand, Boolean inStock) {
+        if (priceBand != null && !bandLabels.contains(priceBand)) {
+            throw new BadRequestException("priceBand must be one of " + bandLabels);
+        }
+
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> priceBands = new LinkedHashMap<>();
+        bandLabels.forEach(label -> priceBands.put(label, 0L));
+        Map<String, Long> availability = new LinkedHashMap<>();
+        availability.put(IN_STOCK, 0L);
+        availability.put(OUT_OF_STOCK, 0L);
+        long total = 0;
+
+        for (Map.Entry<FacetKey, Long> entry : counts.entrySet()) {
+            FacetKey key = entry.getKey();
+            long count = entry.getValue();
+            boolean categoryMatches = category == null || category.equals(key.getCategory());
+            boolean bandMatches = priceBand == null || priceBand.equals(key.getPriceBand());
+            boolean stockMatches = inStock == null || inStock == key.isInStock();
+
+            if (bandMatches && stockMatches) {
+                categories.merge(key.getCategory(), count, Long::sum);
+            }
+            if (categoryMatches && stockMatches) {
+                priceBands.merge(key.getPriceBand(), count, Long::sum);
+            }
+            if (categoryMatches && bandMatches) {
+                availability.merge(key.isInStock() ? IN_STOCK : OUT_OF_STOCK, count, Long::sum);
+            }
+            if (categoryMatches && bandMatches && stockMatches) {
+                total += count;
+            }
+        }
+        return new ProductFacets(total, categories, priceBands, availability);
+    }
+
+    private void decrement(FacetKey key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private String bandOf(BigDecimal price) {
+        for (int i = 0; i < bandLimits.length; i++) {
+            if (price == null || price.compareTo(bandLimits[i]) < 0) {
+                return bandLabels.get(i);
+            }
+        }
+        return bandLabels.get(bandLimits.length);
+    }
+
+    // 25,50 -> "0-25", "25-50", "50+"
+    private static List<String> labels(BigDecimal[] limits) {
+        List<String> labels = new ArrayList<>();
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal limit : limits) {
+            labels.add(lower.toPlainString() + "-" + limit.toPlainString());
+            lower = limit;
+        }
+        labels.add(lower.toPlainString() + "+");
+        return labels;
+    }
+
+    @Data
+    private static class FacetKey {
+        private final String category;
+        private final String priceBand;
+        private final boolean inStock;
+    }
+}
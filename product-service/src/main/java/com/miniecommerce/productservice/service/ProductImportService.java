@@ -0,0 +1,511 @@
+package com.miniecommerce.productservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.productservice.dto.ProductImportError;
+import com.miniecommerce.productservice.dto.ProductImportRow;
+import com.miniecommerce.productservice.dto.ProductImportStatus;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.event.ProductEvent;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.exception.ResourceNotFoundException;
+import com.miniecommerce.productservice.kafka.ProductEventProducer;
+import com.miniecommerce.productservice.kafka.ProductStateProducer;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Bulk product import from a CSV or NDJSON request body. Rows are parsed and validated as they
+// arrive and upserted by SKU in chunks: each chunk is batch-inserted into a temporary staging table,
+// then merged into products, inventory and the stock ledger with one set-based statement.
+// Events, snapshots and the in-memory indexes are updated once per chunk, after it commits.
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int MAX_JOBS = 50;
+    // Must match the allocationSize of Product's products_seq generator (pooled-lo blocks)
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("sku", "name", "price", "stock");
+
+    // Emptied by every commit or rollback; one per database session
+    private static final String CREATE_STAGE = "CREATE TEMP TABLE IF NOT EXISTS product_import_stage ("
+            + "line bigint, id bigint, sku varchar(64), name varchar(255), description varchar(1000), "
+            + "price numeric, stock integer, category varchar(255), image_url varchar(255)) ON COMMIT DELETE ROWS";
+    private static final String INSERT_STAGE = "INSERT INTO product_import_stage "
+            + "(line, id, sku, name, description, price, stock, category, image_url) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Locks the stock of the products being updated first, so the ledger deltas of the merge are exact
+    private static final String LOCK_EXISTING = "SELECT DISTINCT p.id, p.sku FROM products p "
+            + "JOIN product_import_stage s ON s.sku = p.sku JOIN inventory i ON i.product_id = p.id "
+            + "ORDER BY p.id FOR UPDATE OF i";
+    private static final String UNSTAGE = "DELETE FROM product_import_stage WHERE sku = ?";
+    // The last row wins when a SKU appears more than once in a chunk
+    private static final String MERGE = "WITH staged AS ("
+            + "SELECT DISTINCT ON (sku) * FROM product_import_stage ORDER BY sku, line DESC"
+            + "), previous AS ("
+            + "SELECT p.id, i.stock FROM products p JOIN staged s ON s.sku = p.sku "
+            + "LEFT JOIN inventory i ON i.product_id = p.id"
+            + "), upserted AS ("
+            + "INSERT INTO products (id, sku, name, description, price, category, image_url, version) "
+            + "SELECT id, sku, name, description, price, category, image_url, 0 FROM staged "
+            + "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, "
+            + "price = EXCLUDED.price, category = EXCLUDED.category, image_url = EXCLUDED.image_url, "
+            + "version = products.version + 1 "
+            + "RETURNING id, sku"
+            + "), stocked AS ("
+            + "INSERT INTO inventory (product_id, stock, version) "
+            + "SELECT u.id, s.stock, 0 FROM upserted u JOIN staged s ON s.sku = u.sku "
+            + "ON CONFLICT (product_id) DO UPDATE SET stock = EXCLUDED.stock, version = inventory.version + 1 "
+            + "WHERE inventory.stock <> EXCLUDED.stock "
+            + "RETURNING product_id, stock"
+            + "), ledger AS ("
+            + "INSERT INTO stock_movements (product_id, quantity, reason, created_at) "
+            + "SELECT st.product_id, st.stock - coalesce(pr.stock, 0), '" + StockLedgerService.IMPORT + "', now() "
+            + "FROM stocked st LEFT JOIN previous pr ON pr.id = st.product_id "
+            + "WHERE st.stock <> coalesce(pr.stock, 0)"
+            + ") "
+            + "SELECT u.id, pr.id IS NULL AS created FROM upserted u LEFT JOIN previous pr ON pr.id = u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ProductRepository productRepository;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final FlashSaleService flashSaleService;
+    private final ProductEventProducer productEventProducer;
+    private final ProductStateProducer productStateProducer;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockAlertService stockAlertService;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    private final Timer chunkTimer;
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    // Most recent imports, running or finished
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    });
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                ProductRepository productRepository,
+                                ProductCacheEvictor productCacheEvictor,
+                                FlashSaleService flashSaleService,
+                                ProductEventProducer productEventProducer,
+                                ProductStateProducer productStateProducer,
+                                ProductSuggestionIndex productSuggestionIndex,
+                                ProductFacetIndex productFacetIndex,
+                                CatalogSnapshotService catalogSnapshotService,
+                                StockAlertService stockAlertService,
+                                @Value("${product.import.chunk-size:1000}") int chunkSize,
+                                @Value("${product.import.max-errors:1000}") int maxErrors,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.productRepository = productRepository;
+        this.productCacheEvictor = productCacheEvictor;
+        this.flashSaleService = flashSaleService;
+        this.productEventProducer = productEventProducer;
+        this.productStateProducer = productStateProducer;
+        this.productSuggestionIndex = productSuggestionIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockAlertService = stockAlertService;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        this.chunkTimer = Timer.builder("product.import.chunk")
+                .description("Time to stage, merge and publish one chunk of imported products")
+                .register(meterRegistry);
+        this.importedCounter = Counter.builder("product.import.rows")
+                .description("Rows processed by product imports")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("product.import.rows")
+                .description("Rows processed by product imports")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    // Runs on the request thread while the body streams in. The content type and CSV header are
+    // checked before the job exists, so they fail the request; onStarted then gets the new job so
+    // the caller can hand out its id before the rows are read.
+    public ProductImportStatus importProducts(InputStream body, String contentType,
+                                              Consumer<ProductImportStatus> onStarted) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        boolean csv = MediaType.parseMediaType(TEXT_CSV).isCompatibleWith(mediaType);
+        if (!csv && !MediaType.parseMediaType(APPLICATION_NDJSON).isCompatibleWith(mediaType)) {
+            throw new BadRequestException("Content-Type must be " + TEXT_CSV + " or " + APPLICATION_NDJSON);
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowSource rows = csv ? csvRows(reader) : ndjsonRows(reader);
+
+        ImportJob job = new ImportJob(csv ? "CSV" : "NDJSON", maxErrors);
+        jobs.put(job.id, job);
+        log.info("Starting product import {} ({})", job.id, job.format);
+
+        try (reader) {
+            onStarted.accept(job.status());
+            IdBlocks ids = new IdBlocks();
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            for (ParsedRow row = rows.next(); row != null; row = rows.next()) {
+                job.rowRead();
+                String error = row.error != null ? row.error : validate(row.row);
+                if (error != null) {
+                    job.rowFailed(row.line, error);
+                    failedCounter.increment();
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk, ids);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, ids);
+            }
+            job.finish("COMPLETED", null);
+        } catch (Exception e) {
+            log.error("❌ Product import {} failed: {}", job.id, e.getMessage());
+            job.finish("FAILED", e.getMessage());
+        }
+
+        ProductImportStatus status = job.status();
+        log.info("Product import {} {}: {} rows read, {} created, {} updated, {} failed", status.getId(),
+                status.getStatus(), status.getRowsRead(), status.getRowsCreated(), status.getRowsUpdated(),
+                status.getRowsFailed());
+        return status;
+    }
+
+    public ProductImportStatus getImportStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Product import", "id", jobId);
+        }
+        return job.status();
+    }
+
+    public List<ProductImportStatus> getImportStatuses() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(ImportJob::status).toList();
+        }
+    }
+
+    private void importChunk(ImportJob job, List<ParsedRow> chunk, IdBlocks ids) {
+        Timer.Sample sample = Timer.start();
+        MergeResult result;
+        try {
+            result = transactionTemplate.execute(status -> merge(chunk, ids));
+        } catch (Exception e) {
+            String message = "Could not import: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunk.forEach(row -> job.rowFailed(row.line, message));
+            failedCounter.increment(chunk.size());
+            sample.stop(chunkTimer);
+            return;
+        }
+
+        chunk.stream()
+                .filter(row -> result.flashSaleSkus.contains(row.row.getSku()))
+                .forEach(row -> job.rowFailed(row.line, "Product " + row.row.getSku()
+                        + " is in flash-sale mode; stop the flash sale before importing it"));
+        int rejected = (int) chunk.stream().filter(row -> result.flashSaleSkus.contains(row.row.getSku())).count();
+        failedCounter.increment(rejected);
+        importedCounter.increment(chunk.size() - rejected);
+        job.imported(result.createdIds.size(), result.products.size() - result.createdIds.size());
+
+        publish(result);
+        sample.stop(chunkTimer);
+    }
+
+    private MergeResult merge(List<ParsedRow> chunk, IdBlocks ids) {
+        jdbcTemplate.execute(CREATE_STAGE);
+        jdbcTemplate.batchUpdate(INSERT_STAGE, chunk, chunk.size(), (ps, parsed) -> {
+            ProductImportRow row = parsed.row;
+            ps.setLong(1, parsed.line);
+            ps.setLong(2, ids.next());
+            ps.setString(3, row.getSku());
+            ps.setString(4, row.getName());
+            ps.setString(5, row.getDescription());
+            ps.setBigDecimal(6, row.getPrice());
+            ps.setInt(7, row.getStock());
+            ps.setString(8, row.getCategory());
+            ps.setString(9, row.getImageUrl());
+        });
+
+        // Flash-sale stock lives in the in-memory pool until the sale stops; leave those products alone
+        Set<String> flashSaleSkus = new HashSet<>();
+        List<Long> existingIds = new ArrayList<>();
+        for (Map<String, Object> existing : jdbcTemplate.queryForList(LOCK_EXISTING)) {
+            Long id = ((Number) existing.get("id")).longValue();
+            existingIds.add(id);
+            if (flashSaleService.find(id).isPresent()) {
+                String sku = (String) existing.get("sku");
+                jdbcTemplate.update(UNSTAGE, sku);
+                flashSaleSkus.add(sku);
+            }
+        }
+
+        // The merge is plain SQL: evict what it may update now and everything it merged afterwards
+        productCacheEvictor.evictProducts(existingIds);
+
+        List<Long> mergedIds = new ArrayList<>();
+        Set<Long> createdIds = new HashSet<>();
+        for (Map<String, Object> merged : jdbcTemplate.queryForList(MERGE)) {
+            Long id = ((Number) merged.get("id")).longValue();
+            mergedIds.add(id);
+            if (Boolean.TRUE.equals(merged.get("created"))) {
+                createdIds.add(id);
+            }
+        }
+        productCacheEvictor.evictProductsAfterCompletion(mergedIds);
+
+        // Read back through JPA so events and indexes get the same Product the rest of the service uses
+        List<Product> products = productRepository.findAllById(mergedIds);
+        return new MergeResult(products, createdIds, flashSaleSkus);
+    }
+
+    private void publish(MergeResult result) {
+        List<ProductEvent> created = result.products.stream()
+                .filter(product -> result.createdIds.contains(product.getId()))
+                .map(product -> ProductEvent.createProductCreatedEvent(product.getId(), product.getName(),
+                        product.getPrice(), product.getStock(), product.getCategory()))
+                .toList();
+        productEventProducer.sendProductEvents(created);
+        productStateProducer.sendSnapshots(result.products);
+        for (Product product : result.products) {
+            productSuggestionIndex.put(product);
+            productFacetIndex.put(product);
+            catalogSnapshotService.put(product);
+            stockAlertService.onStockChange(product);
+        }
+    }
+
+    private String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Header row first; column names are matched case-insensitively, with or without underscores
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().replace("_", "").toLowerCase(Locale.ROOT);
+            columns.put(name, i);
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header is missing columns " + missing);
+        }
+
+        return () -> {
+            List<String> fields = records.next();
+            while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+                fields = records.next();
+            }
+            if (fields == null) {
+                return null;
+            }
+            try {
+                ProductImportRow row = new ProductImportRow(
+                        field(fields, columns, "sku"),
+                        field(fields, columns, "name"),
+                        field(fields, columns, "description"),
+                        decimal(field(fields, columns, "price")),
+                        integer(field(fields, columns, "stock")),
+                        field(fields, columns, "category"),
+                        field(fields, columns, "imageurl"));
+                return new ParsedRow(records.line(), row, null);
+            } catch (NumberFormatException e) {
+                return new ParsedRow(records.line(), null, "Price and stock must be numbers");
+            }
+        };
+    }
+
+    // One JSON object per line; blank lines are skipped
+    private RowSource ndjsonRows(BufferedReader reader) {
+        long[] line = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new ParsedRow(line[0], objectMapper.readValue(text, ProductImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line[0], null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    private static Integer integer(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        // Null at the end of the input
+        ParsedRow next() throws IOException;
+    }
+
+    // Either a row to validate or the reason it could not be parsed
+    private static final class ParsedRow {
+        private final long line;
+        private final ProductImportRow row;
+        private final String error;
+
+        private ParsedRow(long line, ProductImportRow row, String error) {
+            this.line = line;
+            this.row = row;
+            this.error = error;
+        }
+    }
+
+    private static final class MergeResult {
+        private final List<Product> products;
+        private final Set<Long> createdIds;
+        private final Set<String> flashSaleSkus;
+
+        private MergeResult(List<Product> products, Set<Long> createdIds, Set<String> flashSaleSkus) {
+            this.products = products;
+            this.createdIds = createdIds;
+            this.flashSaleSkus = flashSaleSkus;
+        }
+    }
+
+    // Hands out ids the way Hibernate's pooled-lo optimizer does: one nextval per block
+    private final class IdBlocks {
+        private long next;
+        private int left;
+
+        private long next() {
+            if (left == 0) {
+                next = jdbcTemplate.queryForObject("SELECT nextval('products_seq')", Long.class);
+                left = ID_BLOCK_SIZE;
+            }
+            left--;
+            return next++;
+        }
+    }
+
+    private static final class ImportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final String format;
+        private final int maxErrors;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private String status = "RUNNING";
+        private long rowsRead;
+        private long rowsCreated;
+        private long rowsUpdated;
+        private long rowsFailed;
+        private String message;
+        private LocalDateTime finishedAt;
+
+        private ImportJob(String format, int maxErrors) {
+            this.format = format;
+            this.maxErrors = maxErrors;
+        }
+
+        private synchronized void rowRead() {
+            rowsRead++;
+        }
+
+        private synchronized void rowFailed(long line, String error) {
+            rowsFailed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportError(line, error));
+            }
+        }
+
+        private synchronized void imported(long created, long updated) {
+            rowsCreated += created;
+            rowsUpdated += updated;
+        }
+
+        private synchronized void finish(String status, String message) {
+            this.status = status;
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized ProductImportStatus status() {
+            return new ProductImportStatus(id, format, status, rowsRead, rowsCreated, rowsUpdated, rowsFailed,
+                    List.copyOf(errors), message, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.miniecommerce.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.productservice.dto.ProductPage;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.miniecommerce.productservice.repository.ProductSpecifications.inCategory;
+import static com.miniecommerce.productservice.repository.ProductSpecifications.inStock;
+import static com.miniecommerce.productservice.repository.ProductSpecifications.priceAtLeast;
+import static com.miniecommerce.productservice.repository.ProductSpecifications.priceAtMost;
+
+// Keyset (cursor) pagination: each page continues after the last row of the previous one,
+// so page N costs the same as page 1 and rows inserted meanwhile do not shift the pages
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductListingService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Every sort ends in id so the position is unique; each matches a composite index on products
+    private static final Map<String, Sort> SORTS = Map.of(
+            "NEWEST", Sort.by(Sort.Direction.DESC, "id"),
+            "PRICE_ASC", Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id")),
+            "PRICE_DESC", Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id")),
+            "NAME_ASC", Sort.by(Sort.Direction.ASC, "name").and(Sort.by(Sort.Direction.ASC, "id"))
+    );
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    public ProductPage listProducts(String category, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock,
+                                    String sort, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String sortName = sort.toUpperCase(Locale.ROOT);
+        Sort order = SORTS.get(sortName);
+        if (order == null) {
+            throw new BadRequestException("sort must be one of " + SORTS.keySet());
+        }
+
+        Specification<Product> filters = Specification.where(inCategory(category))
+                .and(priceAtLeast(minPrice))
+                .and(priceAtMost(maxPrice))
+                .and(inStock(inStock));
+        ScrollPosition position = cursor == null ? ScrollPosition.keyset() : decodeCursor(cursor, sortName);
+
+        Window<Product> window = productRepository.findBy(filters, query -> query
+                .sortBy(order)
+                .limit(size)
+                .scroll(position));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encodeCursor(sortName, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new ProductPage(window.getContent(), nextCursor);
+    }
+
+    // The cursor is opaque to clients: base64url JSON of the sort and the last row's sort keys
+    String encodeCursor(String sortName, KeysetScrollPosition position) {
+        Map<String, String> keys = new HashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, String.valueOf(value)));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new Cursor(sortName, keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode product cursor", e);
+        }
+    }
+
+    ScrollPosition decodeCursor(String cursor, String sortName) {
+        Cursor decoded;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            decoded = objectMapper.readValue(json, Cursor.class);
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (!sortName.equals(decoded.getSort()) || decoded.getKeys() == null) {
+            throw new BadRequestException("Cursor does not belong to sort " + sortName);
+        }
+
+        Map<String, Object> keys = new HashMap<>();
+        try {
+            decoded.getKeys().forEach((property, value) -> keys.put(property, switch (property) {
+                case "id" -> Long.valueOf(value);
+                case "price" -> new BigDecimal(value);
+                case "name" -> value;
+                default -> throw new BadRequestException("Invalid cursor");
+            }));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class Cursor {
+        private String sort;
+        private Map<String, String> keys;
+    }
+}
@@ -0,0 +1,129 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.ProductSearchResult;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Product search backed by Postgres full-text search (tsvector + GIN) and pg_trgm.
+// The search column is generated by the database, so every product write keeps it current.
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Idempotent; ddl-auto does not know about extensions, generated columns or GIN indexes
+    static final List<String> SEARCH_INDEX_DDL = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                    + "setweight(to_tsvector('english', coalesce(name, '')), 'A') || "
+                    + "setweight(to_tsvector('english', coalesce(category, '')), 'B') || "
+                    + "setweight(to_tsvector('english', coalesce(description, '')), 'C')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (lower(name) gin_trgm_ops)"
+    );
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Timer fullTextTimer;
+    private final Timer likeTimer;
+
+    private volatile boolean fullTextAvailable = false;
+
+    public ProductSearchService(ProductRepository productRepository,
+                                JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+
+        // Same metric for both paths so they can be compared under the same load
+        this.fullTextTimer = Timer.builder("product.search")
+                .description("Product search latency")
+                .tag("mode", "fulltext")
+                .register(meterRegistry);
+        this.likeTimer = Timer.builder("product.search")
+                .description("Product search latency")
+                .tag("mode", "like")
+                .register(meterRegistry);
+    }
+
+    // Runs before anything else listening for ApplicationReadyEvent
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void createSearchIndex() {
+        try {
+            SEARCH_INDEX_DDL.forEach(jdbcTemplate::execute);
+            fullTextAvailable = true;
+            log.info("Product full-text search index is ready");
+        } catch (Exception e) {
+            // e.g. the database user may not create extensions; keep serving the LIKE search
+            log.warn("⚠️ Could not create the product search index, falling back to LIKE search: {}",
+                    e.getMessage());
+        }
+    }
+
+    public ProductSearchResult search(String keyword, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        String trimmed = keyword.trim();
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Page<Product> results;
+
+        if (fullTextAvailable) {
+            String tsQuery = toPrefixQuery(trimmed);
+            if (tsQuery.isEmpty()) {
+                return new ProductSearchResult(keyword, page, size, 0, List.of());
+            }
+            results = fullTextTimer.record(() -> inRankOrder(productRepository.searchFullText(tsQuery, trimmed, pageRequest)));
+        } else {
+            results = likeTimer.record(() -> productRepository.findByNameContainingIgnoreCase(trimmed, pageRequest));
+        }
+
+        return new ProductSearchResult(keyword, page, size, results.getTotalElements(), results.getContent());
+    }
+
+    // findAllById does not keep the order of the ids, so put the page back in rank order;
+    // a product deleted between the two queries is left out
+    private Page<Product> inRankOrder(Page<Long> ids) {
+        Map<Long, Product> byId = productRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(products, ids.getPageable(), ids.getTotalElements());
+    }
+
+    // "gaming lapt" -> "gaming:* & lapt:*": every word must match, each as a prefix.
+    // Anything but letters and digits is dropped so user input cannot break to_tsquery.
+    static String toPrefixQuery(String keyword) {
+        return Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -1,16 +1,53 @@
 package com.miniecommerce.productservice.service;
 
+import com.miniecommerce.productservice.dto.FlashSaleStatus;
+import com.miniecommerce.productservice.dto.ProductFacets;
+import com.miniecommerce.productservice.dto.ProductPage;
+import com.miniecommerce.productservice.dto.ProductSearchResult;
+import com.miniecommerce.productservice.dto.ProductSuggestion;
+import com.miniecommerce.productservice.dto.StockAlertSettings;
+import com.miniecommerce.productservice.dto.StockBalance;
+import com.miniecommerce.productservice.dto.StockUpdateRequest;
 import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.entity.StockMovement;
 import com.miniecommerce.productservice.event.ProductEvent;
+import com.miniecommerce.productservice.exception.BadRequestException;
 import com.miniecommerce.productservice.exception.InsufficientStockException;
+import com.miniecommerce.productservice.exception.ResourceAlreadyExistsException;
 import com.miniecommerce.productservice.exception.ResourceNotFoundException;
 import com.miniecommerce.productservice.kafka.ProductEventProducer;
+import com.miniecommerce.productservice.kafka.ProductStateProducer;
+import com.miniecommerce.productservice.repository.InventoryLevel;
+import com.miniecommerce.productservice.repository.ProductFieldsRepository;
 import com.miniecommerce.productservice.repository.ProductRepository;
+import com.miniecommerce.productservice.repository.ProductSalesRepository;
+import com.miniecommerce.productservice.repository.StockReservationRepository;
+import com.miniecommerce.productservice.repository.WarehouseStockRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.miniecommerce.productservice.repository.ProductSpecifications.hasId;
+import static com.miniecommerce.productservice.repository.ProductSpecifications.hasIdIn;
+import static com.miniecommerce.productservice.repository.ProductSpecifications.inCategory;
+import static com.miniecommerce.productservice.repository.ProductSpecifications.inStock;
+import static com.miniecommerce.productservice.service.TransactionHooks.afterCommit;
 
 @Service
 @RequiredArgsConstructor
@@ -19,8 +56,89 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductEventProducer productEventProducer;
+    private final ProductStateProducer productStateProducer;
+    private final FlashSaleService flashSaleService;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductListingService productListingService;
+    private final ProductFacetIndex productFacetIndex;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockLedgerService stockLedgerService;
+    private final StockAlertService stockAlertService;
+    private final StockReservationRepository stockReservationRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductSalesRepository productSalesRepository;
+    private final WarehouseAvailabilityIndex warehouseAvailabilityIndex;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // Single IN query; unknown IDs are simply absent from the result
+    public List<Product> getProductsByIds(List<Long> ids) {
+        log.info("Fetching {} products by id", ids.size());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " product IDs can be requested at once");
+        }
+        return productRepository.findAllById(ids.stream().distinct().toList());
+    }
+
+    public ProductPage listProducts(String category, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock,
+                                    String sort, String cursor, int size) {
+        log.info("Listing products (category {}, price {}-{}, inStock {}, sort {}, size {})",
+                category, minPrice, maxPrice, inStock, sort, size);
+        return productListingService.listProducts(category, minPrice, maxPrice, inStock, sort, cursor, size);
+    }
+
+    public ProductFacets getFacets(String category, String priceBand, Boolean inStock) {
+        return productFacetIndex.facets(category, priceBand, inStock);
+    }
+
+    // Sparse fieldsets (?fields=id,name,price): only those columns are read and serialized
+
+    public List<Map<String, Object>> getAllProducts(String fields) {
+        log.info("Fetching all products (fields: {})", fields);
+        return productRepository.findFields(Specification.where(null), parseFields(fields));
+    }
+
+    public List<Map<String, Object>> getProductsByIds(List<Long> ids, String fields) {
+        log.info("Fetching {} products by id (fields: {})", ids.size(), fields);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " product IDs can be requested at once");
+        }
+        return productRepository.findFields(hasIdIn(ids.stream().distinct().toList()), parseFields(fields));
+    }
+
+    public Map<String, Object> getProductById(Long id, String fields) {
+        log.info("Fetching product with id: {} (fields: {})", id, fields);
+        return productRepository.findFields(hasId(id), parseFields(fields)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+    }
+
+    public List<Map<String, Object>> getProductsByCategory(String category, String fields) {
+        log.info("Fetching products by category: {} (fields: {})", category, fields);
+        return productRepository.findFields(inCategory(category), parseFields(fields));
+    }
+
+    public List<Map<String, Object>> getAvailableProducts(String fields) {
+        log.info("Fetching available products (fields: {})", fields);
+        return productRepository.findFields(inStock(true), parseFields(fields));
+    }
+
+    // Pre-serialized lists from the catalog snapshot; empty until the snapshot is built
 
-    private static final int LOW_STOCK_THRESHOLD = 10;
+    public Optional<byte[]> getAllProductsJson() {
+        return catalogSnapshotService.allProducts();
+    }
+
+    public Optional<byte[]> getAvailableProductsJson() {
+        return catalogSnapshotService.availableProducts();
+    }
+
+    public Optional<byte[]> getProductsByCategoryJson(String category) {
+        return catalogSnapshotService.productsByCategory(category);
+    }
 
     public List<Product> getAllProducts() {
         log.info("Fetching all products");
@@ -33,9 +151,19 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
     }
 
+    public Long getProductRevision(Long id) {
+        return productRepository.findRevisionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+    }
+
+    @Transactional
     public Product createProduct(Product product) {
         log.info("Creating new product: {}", product.getName());
+        if (product.getSku() != null && productRepository.existsBySku(product.getSku())) {
+            throw new ResourceAlreadyExistsException("Product", "sku", product.getSku());
+        }
         Product savedProduct = productRepository.save(product);
+        stockLedgerService.record(savedProduct.getId(), savedProduct.getStock(), StockLedgerService.CREATED);
         log.info("Product created successfully with id: {}", savedProduct.getId());
 
         // PUBLISH PRODUCT_CREATED EVENT
@@ -48,30 +176,78 @@ public class ProductService {
                         savedProduct.getCategory()
                 )
         );
+        afterCommit(() -> productStateProducer.sendSnapshot(savedProduct));
+        productSuggestionIndex.put(savedProduct);
+        productFacetIndex.put(savedProduct);
+        catalogSnapshotService.put(savedProduct);
+        stockAlertService.onStockChange(savedProduct);
         return savedProduct;
     }
 
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
         log.info("Updating product with id: {}", id);
 
+        if (flashSaleService.find(id).isPresent()) {
+            throw new BadRequestException("Product " + id + " is in flash-sale mode; stop the flash sale before updating it");
+        }
+
         Product product = getProductById(id);
+        if (productDetails.getSku() != null && !productDetails.getSku().equals(product.getSku())
+                && productRepository.existsBySku(productDetails.getSku())) {
+            throw new ResourceAlreadyExistsException("Product", "sku", productDetails.getSku());
+        }
+        product.setSku(productDetails.getSku());
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
-        product.setStock(productDetails.getStock());
         product.setCategory(productDetails.getCategory());
         product.setImageUrl(productDetails.getImageUrl());
 
-        Product updatedProduct = productRepository.save(product);
+        // Flushed so the returned version is the new one
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        if (productDetails.getStock() != null) {
+            productCacheEvictor.evictProduct(id);
+            Optional<InventoryLevel> level = productRepository.setStock(id, productDetails.getStock());
+            if (level.isPresent()) {
+                stockLedgerService.record(id, level.get().getDelta(), StockLedgerService.PRODUCT_UPDATE);
+                updatedProduct = withInventory(updatedProduct, level.get());
+                stockAlertService.onStockChange(updatedProduct);
+            }
+        }
         log.info("Product updated successfully");
+        Product published = updatedProduct;
+        afterCommit(() -> productStateProducer.sendSnapshot(published));
+        productSuggestionIndex.put(updatedProduct);
+        productFacetIndex.put(updatedProduct);
+        catalogSnapshotService.put(updatedProduct);
         return updatedProduct;
     }
 
     public void deleteProduct(Long id) {
         log.info("Deleting product with id: {}", id);
         Product product = getProductById(id);
-        productRepository.delete(product);
+        flashSaleService.stop(id);
+        // Open holds and warehouse rows go with the product, so expiry never tries to give stock
+        // back to a missing row
+        int voided = transactionTemplate.execute(status -> {
+            int lines = stockReservationRepository.voidHeldForProduct(id);
+            warehouseStockRepository.deleteByProductId(id);
+            productSalesRepository.deleteById(id);
+            productRepository.delete(product);
+            return lines;
+        });
+        if (voided > 0) {
+            log.info("Voided {} held reservation lines of deleted product {}", voided, id);
+        }
         log.info("Product deleted successfully");
+        productStateProducer.sendTombstone(id);
+        productSuggestionIndex.remove(id);
+        productFacetIndex.remove(id);
+        catalogSnapshotService.remove(id);
+        stockLedgerService.forget(id);
+        stockAlertService.forget(id);
+        warehouseAvailabilityIndex.removeProduct(id);
     }
 
     public List<Product> getProductsByCategory(String category) {
@@ -79,9 +255,13 @@ public class ProductService {
         return productRepository.findByCategory(category);
     }
 
-    public List<Product> searchProducts(String keyword) {
-        log.info("Searching products with keyword: {}", keyword);
-        return productRepository.findByNameContainingIgnoreCase(keyword);
+    public ProductSearchResult searchProducts(String keyword, int page, int size) {
+        log.info("Searching products with keyword: {} (page {}, size {})", keyword, page, size);
+        return productSearchService.search(keyword, page, size);
+    }
+
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        return productSuggestionIndex.suggest(prefix, limit);
     }
 
     public List<Product> getAvailableProducts() {
@@ -89,37 +269,233 @@ public class ProductService {
         return productRepository.findByStockGreaterThan(0);
     }
 
+    @Transactional
     public Product updateStock(Long id, Integer quantity) {
-        log.info("Updating stock for product id: {} by quantity: {}", id, quantity);
+        Optional<StripedStockCounter> flashSale = flashSaleService.find(id);
+        Product updatedProduct;
+        if (flashSale.isPresent()) {
+            updatedProduct = updateFlashSaleStock(id, quantity, flashSale.get());
+        } else {
+            updatedProduct = applyStockDelta(id, quantity, StockLedgerService.STOCK_UPDATE);
+            publishStockChange(updatedProduct);
+        }
 
-        Product product = getProductById(id);
-        int newStock = product.getStock() + quantity;
+        return updatedProduct;
+    }
+
+    // Applies every stock delta or none of them; rows are updated in ID order to avoid deadlocks
+    @Transactional
+    public List<Product> updateStockBatch(List<StockUpdateRequest> updates) {
+        log.info("Updating stock for {} products in one batch", updates.size());
+
+        // Merge duplicate lines so each row is updated once
+        Map<Long, Integer> deltas = new TreeMap<>();
+        updates.forEach(update -> deltas.merge(update.getProductId(), update.getQuantity(), Integer::sum));
 
-        if (newStock < 0) {
-            throw new InsufficientStockException(product.getName(), product.getStock(), Math.abs(quantity));
+        // Units taken from flash-sale pools are given back if the transaction rolls back
+        List<Product> updatedProducts = new ArrayList<>();
+        List<Product> flashSaleProducts = new ArrayList<>();
+        for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            Optional<StripedStockCounter> flashSale = flashSaleService.find(delta.getKey());
+            if (flashSale.isPresent() && delta.getValue() < 0) {
+                flashSaleProducts.add(takeFlashSaleStock(delta.getKey(), -delta.getValue(), flashSale.get()));
+            } else {
+                Product updatedProduct = applyStockDelta(delta.getKey(), delta.getValue(),
+                        StockLedgerService.STOCK_UPDATE);
+                flashSale.ifPresent(counter -> counter.add(delta.getValue()));
+                updatedProducts.add(updatedProduct);
+            }
         }
 
-        product.setStock(newStock);
-        Product updatedProduct = productRepository.save(product);
-        log.info("Stock updated successfully. New stock: {}", updatedProduct.getStock());
+        // Publish only once every delta has been applied; flash-sale products publish on flush
+        updatedProducts.forEach(this::publishStockChange);
+        updatedProducts.addAll(flashSaleProducts);
+        return updatedProducts;
+    }
+
+    // Balance rebuilt from the stock ledger; matches the product's stock once every change has committed
+    public StockBalance getStockBalance(Long id) {
+        getProductById(id);
+        return stockLedgerService.balance(id);
+    }
+
+    public List<StockMovement> getStockMovements(Long id, int limit) {
+        getProductById(id);
+        return stockLedgerService.movements(id, limit);
+    }
+
+    public StockAlertSettings getStockAlertSettings(Long id) {
+        getProductById(id);
+        return stockAlertService.getSettings(id);
+    }
+
+    public StockAlertSettings updateStockAlertSettings(Long id, StockAlertSettings settings) {
+        getProductById(id);
+        return stockAlertService.updateSettings(id, settings);
+    }
+
+    public FlashSaleStatus startFlashSale(Long id) {
+        flashSaleService.start(getProductById(id));
+        return getFlashSaleStatus(id);
+    }
+
+    public FlashSaleStatus stopFlashSale(Long id) {
+        flashSaleService.stop(id).ifPresent(counter -> flushFlashSale(id, counter));
+        return getFlashSaleStatus(id);
+    }
+
+    public FlashSaleStatus getFlashSaleStatus(Long id) {
+        return flashSaleService.find(id)
+                .map(counter -> new FlashSaleStatus(id, true, counter.remaining(), counter.pendingSold()))
+                .orElseGet(() -> new FlashSaleStatus(id, false, getProductById(id).getStock(), 0L));
+    }
+
+    // Writes the units sold from every flash-sale pool to the database in one statement per product
+    @Scheduled(fixedDelayString = "${product.flash-sale.flush-interval-ms:500}")
+    public void flushFlashSales() {
+        flashSaleService.activeSales().forEach(this::flushFlashSale);
+    }
+
+    // Sold units live only in the pools until they are flushed: stop every sale and write them out
+    // before the context closes. Runs after the scheduler has stopped and before the data source closes.
+    @PreDestroy
+    public void flushFlashSalesOnShutdown() {
+        for (Long id : List.copyOf(flashSaleService.activeSales().keySet())) {
+            flashSaleService.stop(id).ifPresent(counter -> {
+                flushFlashSale(id, counter);
+                if (counter.pendingSold() > 0) {
+                    log.error("❌ {} units sold from the flash-sale pool of product {} were not written on shutdown",
+                            counter.pendingSold(), id);
+                }
+            });
+        }
+    }
+
+    private void flushFlashSale(Long id, StripedStockCounter counter) {
+        long sold = counter.drainSold();
+        if (sold == 0) {
+            return;
+        }
 
-        // CHECK AND PUBLISH STOCK EVENTS
-        checkAndPublishStockEvents(updatedProduct);
+        try {
+            Product updatedProduct = applyFlashSaleDelta(id, (int) -sold);
+            flashSaleService.refresh(updatedProduct);
+            publishStockChange(updatedProduct);
+        } catch (InsufficientStockException e) {
+            // Stock was also taken outside the pool: sell out what the database has left and close the pool
+            counter.tryTake(counter.remaining());
+            counter.drainSold();
+            Product product = getProductById(id);
+            flashSaleService.recordOversold(sold - product.getStock());
+            log.error("❌ Flash-sale flush for product {} exceeded database stock: {} units oversold ({})",
+                    id, sold - product.getStock(), e.getMessage());
+            Product updatedProduct = applyFlashSaleDelta(id, -product.getStock());
+            flashSaleService.refresh(updatedProduct);
+            publishStockChange(updatedProduct);
+        } catch (Exception e) {
+            // Keep the units pending so the next flush retries them
+            log.error("Flash-sale flush for product {} failed: {}", id, e.getMessage());
+            counter.requeueSold(sold);
+        }
+    }
+
+    private Product updateFlashSaleStock(Long id, Integer quantity, StripedStockCounter counter) {
+        if (quantity < 0) {
+            return takeFlashSaleStock(id, -quantity, counter);
+        }
+
+        // Restocks go to the database right away and grow the pool by the same amount
+        Product updatedProduct = applyStockDelta(id, quantity, StockLedgerService.FLASH_SALE);
+        counter.add(quantity);
+        flashSaleService.refresh(updatedProduct);
+        publishStockChange(updatedProduct);
+        return flashSaleService.view(id, counter);
+    }
+
+    // The pool is not transactional: units taken inside a transaction that later rolls back
+    // (a failing later line, a caller's failing write or the commit itself) go back to it
+    private Product takeFlashSaleStock(Long id, int quantity, StripedStockCounter counter) {
+        if (!flashSaleService.tryTake(counter, quantity)) {
+            Product view = flashSaleService.view(id, counter);
+            throw new InsufficientStockException(view.getName(), view.getStock(), quantity);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        counter.giveBack(quantity);
+                    }
+                }
+            });
+        }
+        return flashSaleService.view(id, counter);
+    }
+
+    // Flushes run outside any request, so they get their own transaction for the ledger entry
+    private Product applyFlashSaleDelta(Long id, int quantity) {
+        return transactionTemplate.execute(status -> applyStockDelta(id, quantity, StockLedgerService.FLASH_SALE));
+    }
 
+    private Product applyStockDelta(Long id, Integer quantity, String reason) {
+        log.info("Updating stock for product id: {} by quantity: {}", id, quantity);
+
+        productCacheEvictor.evictProduct(id);
+        InventoryLevel level = productRepository.adjustStock(id, quantity)
+                .orElseThrow(() -> stockUpdateRejected(id, quantity));
+        stockLedgerService.record(id, quantity, reason);
+
+        // Catalog columns are unchanged, so they can come from the cache; stock comes from the update
+        Product updatedProduct = withInventory(getProductById(id), level);
+        log.info("Stock updated successfully. New stock: {}", updatedProduct.getStock());
         return updatedProduct;
     }
 
-    private void checkAndPublishStockEvents(Product product) {
-        if (product.getStock() == 0) {
-            log.warn("⚠️ Product {} is OUT OF STOCK", product.getName());
-            productEventProducer.sendProductEvent(
-                    ProductEvent.createStockOutEvent(product.getId(), product.getName())
-            );
-        } else if (product.getStock() > 0 && product.getStock() <= LOW_STOCK_THRESHOLD) {
-            log.warn("⚠️ Product {} has LOW STOCK: {}", product.getName(), product.getStock());
-            productEventProducer.sendProductEvent(
-                    ProductEvent.createStockLowEvent(product.getId(), product.getName(), product.getStock())
-            );
+    // Detached copy, so the new stock is never flushed back through the managed entity
+    private Product withInventory(Product product, InventoryLevel level) {
+        Product updated = new Product();
+        updated.setId(product.getId());
+        updated.setSku(product.getSku());
+        updated.setName(product.getName());
+        updated.setDescription(product.getDescription());
+        updated.setPrice(product.getPrice());
+        updated.setCategory(product.getCategory());
+        updated.setImageUrl(product.getImageUrl());
+        updated.setVersion(product.getVersion());
+        updated.setStock(level.getStock());
+        updated.setStockVersion(level.getVersion());
+        return updated;
+    }
+
+    // Only reached when the conditional update matched no row: find out which case it was
+    private RuntimeException stockUpdateRejected(Long id, Integer quantity) {
+        Product product = getProductById(id);
+        return new InsufficientStockException(product.getName(), product.getStock(), Math.abs(quantity));
+    }
+
+    // id is always returned so rows can be told apart
+    private List<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!ProductFieldsRepository.SELECTABLE_FIELDS.contains(trimmed)) {
+                throw new BadRequestException("Unknown field '" + trimmed + "'; allowed fields are "
+                        + ProductFieldsRepository.SELECTABLE_FIELDS);
+            }
+            selected.add(trimmed);
         }
+        return new ArrayList<>(selected);
+    }
+
+    // The snapshot goes out only once the stock change has committed
+    private void publishStockChange(Product product) {
+        afterCommit(() -> productStateProducer.sendSnapshot(product));
+        productFacetIndex.put(product);
+        catalogSnapshotService.put(product);
+        stockAlertService.onStockChange(product);
     }
 }
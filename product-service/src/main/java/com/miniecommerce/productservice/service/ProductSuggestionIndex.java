@@ -0,0 +1,347 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.ProductSuggestion;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.entity.ProductSales;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.repository.ProductSalesRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static com.miniecommerce.productservice.service.TransactionHooks.afterCommit;
+
+// In-memory trie of product names and categories for the autocomplete box.
+// Every node caches its top suggestions by popularity; a write only invalidates the
+// nodes on the paths of the keys it touches, and a lookup never reaches the database.
+// Popularity is the units sold through confirmed holds (product_sales), so it survives restarts
+// and every instance converges on the same ranking.
+@Service
+@Slf4j
+public class ProductSuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final String PRODUCT = "PRODUCT";
+    private static final String CATEGORY = "CATEGORY";
+
+    // Higher weight first, then alphabetical so results are stable
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong((Entry entry) -> entry.weight)
+            .reversed()
+            .thenComparing(entry -> entry.text);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> products = new HashMap<>();
+    private final Map<String, Entry> categories = new HashMap<>();
+
+    private final ProductSalesRepository productSalesRepository;
+
+    public ProductSuggestionIndex(ProductSalesRepository productSalesRepository, MeterRegistry meterRegistry) {
+        this.productSalesRepository = productSalesRepository;
+        Gauge.builder("product.suggest.entries", this, ProductSuggestionIndex::size)
+                .description("Product names and categories in the autocomplete index")
+                .register(meterRegistry);
+    }
+
+    // Called once at startup by CatalogWarmup
+    public void load(List<Product> products) {
+        products.forEach(this::apply);
+        applyUnitsSold(unitsSold());
+        log.info("Loaded {} products into the autocomplete index", products.size());
+    }
+
+    // Picks up sales confirmed on other instances
+    @Scheduled(initialDelayString = "${product.suggest.popularity-refresh-ms:300000}",
+            fixedDelayString = "${product.suggest.popularity-refresh-ms:300000}")
+    public void refreshPopularity() {
+        try {
+            applyUnitsSold(unitsSold());
+        } catch (Exception e) {
+            log.error("❌ Failed to refresh autocomplete popularity: {}", e.getMessage());
+        }
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.children.get(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return topSuggestions(node).stream()
+                    .limit(Math.min(limit, MAX_SUGGESTIONS))
+                    .map(Entry::toSuggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Writes land only once the change has committed, so a rolled-back write never shows up
+    public void put(Product product) {
+        afterCommit(() -> apply(product));
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> forget(productId));
+    }
+
+    // Units of a confirmed hold; persisted by the caller, shown here once it commits
+    public void recordSale(Long productId, int units) {
+        if (units > 0) {
+            afterCommit(() -> addSale(productId, units));
+        }
+    }
+
+    // Adds or replaces a product; popularity survives renames
+    private void apply(Product product) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = products.get(product.getId());
+            long popularity = 0;
+            if (previous != null) {
+                popularity = previous.weight;
+                removeProduct(previous);
+            }
+
+            Entry entry = new Entry(PRODUCT, product.getId(), product.getName(), product.getCategory(), popularity);
+            products.put(product.getId(), entry);
+            insert(entry);
+            changeCategory(product.getCategory(), 1, popularity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void forget(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = products.remove(productId);
+            if (entry != null) {
+                removeProduct(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Units sold raise both the product and its category
+    private void addSale(Long productId, int units) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = products.get(productId);
+            if (entry == null) {
+                return;
+            }
+            reweigh(entry, entry.weight + units);
+            Entry category = categories.get(normalize(entry.category));
+            if (category != null) {
+                reweigh(category, category.weight + units);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Long> unitsSold() {
+        return productSalesRepository.findAll().stream()
+                .collect(Collectors.toMap(ProductSales::getProductId, ProductSales::getUnitsSold));
+    }
+
+    private void applyUnitsSold(Map<Long, Long> unitsSold) {
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : products.values()) {
+                long weight = unitsSold.getOrDefault(entry.productId, 0L);
+                if (weight != entry.weight) {
+                    long delta = weight - entry.weight;
+                    reweigh(entry, weight);
+                    Entry category = categories.get(normalize(entry.category));
+                    if (category != null) {
+                        reweigh(category, category.weight + delta);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return products.size() + categories.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeProduct(Entry entry) {
+        delete(entry);
+        changeCategory(entry.category, -1, -entry.weight);
+    }
+
+    // Categories rank by how much their products sell; they are dropped with their last product
+    private void changeCategory(String category, int products, long popularity) {
+        String key = normalize(category);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Entry entry = categories.get(key);
+        if (entry == null) {
+            entry = new Entry(CATEGORY, null, category, category, 0);
+            categories.put(key, entry);
+            insert(entry);
+        }
+
+        entry.productCount += products;
+        if (entry.productCount <= 0) {
+            categories.remove(key);
+            delete(entry);
+        } else {
+            reweigh(entry, entry.weight + popularity);
+        }
+    }
+
+    private void reweigh(Entry entry, long weight) {
+        entry.weight = weight;
+        entry.keys.forEach(this::invalidate);
+    }
+
+    private void insert(Entry entry) {
+        for (String key : entry.keys) {
+            Node node = root;
+            node.topSuggestions = null;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                node.topSuggestions = null;
+            }
+            node.entries.add(entry);
+        }
+    }
+
+    private void delete(Entry entry) {
+        for (String key : entry.keys) {
+            delete(root, key, 0, entry);
+        }
+    }
+
+    // Returns true when the node is left empty so the parent can prune it
+    private boolean delete(Node node, String key, int depth, Entry entry) {
+        node.topSuggestions = null;
+        if (depth == key.length()) {
+            node.entries.remove(entry);
+        } else {
+            Node child = node.children.get(key.charAt(depth));
+            if (child != null && delete(child, key, depth + 1, entry)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return node.entries.isEmpty() && node.children.isEmpty();
+    }
+
+    private void invalidate(String key) {
+        Node node = root;
+        node.topSuggestions = null;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+            if (node != null) {
+                node.topSuggestions = null;
+            }
+        }
+    }
+
+    // Built from the node's own entries and its children's cached lists, so only nodes
+    // invalidated since the last lookup are recomputed. Readers may race to fill the same
+    // cache; they compute the same list, and writers are excluded by the lock.
+    private List<Entry> topSuggestions(Node node) {
+        List<Entry> cached = node.topSuggestions;
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<Entry> candidates = new HashSet<>(node.entries);
+        for (Node child : node.children.values()) {
+            candidates.addAll(topSuggestions(child));
+        }
+        List<Entry> top = candidates.stream()
+                .sorted(RANKING)
+                .limit(MAX_SUGGESTIONS)
+                .toList();
+        node.topSuggestions = top;
+        return top;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // "Gaming Laptop Pro" is found by "gam", "lap" and "pro"
+    private static Set<String> keysFor(String text) {
+        String normalized = normalize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Entry> entries = new HashSet<>();
+        private volatile List<Entry> topSuggestions;
+    }
+
+    private static final class Entry {
+        private final String type;
+        private final Long productId;
+        private final String text;
+        private final String category;
+        private final Set<String> keys;
+        private volatile long weight;
+        private int productCount;
+
+        private Entry(String type, Long productId, String text, String category, long weight) {
+            this.type = type;
+            this.productId = productId;
+            this.text = text;
+            this.category = category;
+            this.keys = keysFor(text);
+            this.weight = weight;
+        }
+
+        private ProductSuggestion toSuggestion() {
+            return new ProductSuggestion(text, type, productId, category);
+        }
+    }
+}
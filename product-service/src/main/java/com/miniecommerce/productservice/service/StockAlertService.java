@@ -0,0 +1,204 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.StockAlertSettings;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.entity.StockAlert;
+import com.miniecommerce.productservice.event.ProductEvent;
+import com.miniecommerce.productservice.kafka.ProductEventProducer;
+import com.miniecommerce.productservice.repository.StockAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.miniecommerce.productservice.service.TransactionHooks.afterCommit;
+
+// Edge-triggered stock alerts. Each product is OK, LOW or OUT; STOCK_LOW is published when it goes
+// from OK to LOW and STOCK_OUT when it reaches zero, never again while it stays there. A LOW
+// product is re-armed only once stock rises above its threshold plus hysteresis, so stock
+// bouncing around the threshold does not alert on every change. States live in memory and
+// every transition is written to stock_alerts.
+@Service
+@Slf4j
+public class StockAlertService {
+
+    public static final String OK = "OK";
+    public static final String LOW = "LOW";
+    public static final String OUT = "OUT";
+
+    private static final String SAVE_STATE = "INSERT INTO stock_alerts (product_id, state, updated_at) "
+            + "VALUES (?, ?, ?) ON CONFLICT (product_id) DO UPDATE SET state = EXCLUDED.state, updated_at = EXCLUDED.updated_at";
+    private static final String SAVE_SETTINGS = "INSERT INTO stock_alerts "
+            + "(product_id, low_threshold, hysteresis, state, updated_at) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (product_id) DO UPDATE SET low_threshold = EXCLUDED.low_threshold, "
+            + "hysteresis = EXCLUDED.hysteresis, updated_at = EXCLUDED.updated_at";
+    private static final String DELETE = "DELETE FROM stock_alerts WHERE product_id = ?";
+
+    private final StockAlertRepository stockAlertRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductEventProducer productEventProducer;
+    private final int defaultThreshold;
+    private final int defaultHysteresis;
+
+    private final Map<Long, AlertState> states = new ConcurrentHashMap<>();
+
+    private final Counter lowCounter;
+    private final Counter outCounter;
+
+    public StockAlertService(StockAlertRepository stockAlertRepository,
+                             JdbcTemplate jdbcTemplate,
+                             ProductEventProducer productEventProducer,
+                             @Value("${product.stock-alerts.default-threshold:10}") int defaultThreshold,
+                             @Value("${product.stock-alerts.default-hysteresis:5}") int defaultHysteresis,
+                             MeterRegistry meterRegistry) {
+        this.stockAlertRepository = stockAlertRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.productEventProducer = productEventProducer;
+        this.defaultThreshold = defaultThreshold;
+        this.defaultHysteresis = defaultHysteresis;
+
+        this.lowCounter = Counter.builder("product.stock.alerts")
+                .description("Stock alerts published on a threshold crossing")
+                .tag("type", "STOCK_LOW")
+                .register(meterRegistry);
+        this.outCounter = Counter.builder("product.stock.alerts")
+                .description("Stock alerts published on a threshold crossing")
+                .tag("type", "STOCK_OUT")
+                .register(meterRegistry);
+    }
+
+    // Called once at startup by CatalogWarmup. Products never alerted on start in the state their
+    // current stock puts them in, without alerting
+    public void load(List<Product> products) {
+        Map<Long, StockAlert> saved = stockAlertRepository.findAll().stream()
+                .collect(Collectors.toMap(StockAlert::getProductId, Function.identity()));
+        for (Product product : products) {
+            StockAlert alert = saved.get(product.getId());
+            int threshold = alert != null && alert.getLowThreshold() != null ? alert.getLowThreshold() : defaultThreshold;
+            int hysteresis = alert != null && alert.getHysteresis() != null ? alert.getHysteresis() : defaultHysteresis;
+            AlertState initial = new AlertState(threshold, hysteresis, OK, -1L);
+            String state = alert != null ? alert.getState() : initial.next(stockOf(product));
+            states.put(product.getId(), new AlertState(threshold, hysteresis, state, stockVersionOf(product)));
+        }
+        log.info("Loaded stock alert states for {} products", states.size());
+    }
+
+    // Evaluated after commit, so a rolled-back stock change never alerts
+    public void onStockChange(Product product) {
+        afterCommit(() -> evaluate(product));
+    }
+
+    public StockAlertSettings getSettings(Long productId) {
+        AlertState state = states.getOrDefault(productId, defaultState());
+        return new StockAlertSettings(productId, state.threshold, state.hysteresis, state.state);
+    }
+
+    // Takes effect from the next stock change; the current state is kept
+    public StockAlertSettings updateSettings(Long productId, StockAlertSettings settings) {
+        AlertState updated = states.compute(productId, (id, current) -> {
+            AlertState base = current != null ? current : defaultState();
+            return new AlertState(settings.getLowThreshold(), settings.getHysteresis(), base.state, base.stockVersion);
+        });
+        jdbcTemplate.update(SAVE_SETTINGS, productId, updated.threshold, updated.hysteresis, updated.state,
+                Timestamp.valueOf(LocalDateTime.now()));
+        log.info("Stock alert thresholds for product {} set to {} (hysteresis {})",
+                productId, updated.threshold, updated.hysteresis);
+        return new StockAlertSettings(productId, updated.threshold, updated.hysteresis, updated.state);
+    }
+
+    public void forget(Long productId) {
+        states.remove(productId);
+        jdbcTemplate.update(DELETE, productId);
+    }
+
+    private void evaluate(Product product) {
+        // previous and new state when the change moves the product to another state
+        String[] transition = new String[2];
+        states.compute(product.getId(), (id, current) -> {
+            AlertState base = current != null ? current : defaultState();
+            // Ignore a change that arrives after a newer one
+            if (stockVersionOf(product) < base.stockVersion) {
+                return base;
+            }
+            String next = base.next(stockOf(product));
+            if (!next.equals(base.state)) {
+                transition[0] = base.state;
+                transition[1] = next;
+            }
+            return new AlertState(base.threshold, base.hysteresis, next, stockVersionOf(product));
+        });
+        if (transition[0] == null) {
+            return;
+        }
+
+        String previous = transition[0];
+        String next = transition[1];
+        try {
+            jdbcTemplate.update(SAVE_STATE, product.getId(), next, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (Exception e) {
+            log.error("❌ Failed to save stock alert state of product {}: {}", product.getId(), e.getMessage());
+        }
+
+        if (OUT.equals(next)) {
+            log.warn("⚠️ Product {} is OUT OF STOCK", product.getName());
+            productEventProducer.sendProductEvent(ProductEvent.createStockOutEvent(product.getId(), product.getName()));
+            outCounter.increment();
+        } else if (OK.equals(previous) && LOW.equals(next)) {
+            log.warn("⚠️ Product {} has LOW STOCK: {}", product.getName(), product.getStock());
+            productEventProducer.sendProductEvent(
+                    ProductEvent.createStockLowEvent(product.getId(), product.getName(), product.getStock()));
+            lowCounter.increment();
+        }
+    }
+
+    private AlertState defaultState() {
+        return new AlertState(defaultThreshold, defaultHysteresis, OK, -1L);
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() != null ? product.getStock() : 0;
+    }
+
+    private static long stockVersionOf(Product product) {
+        return product.getStockVersion() != null ? product.getStockVersion() : 0L;
+    }
+
+    private static final class AlertState {
+        private final int threshold;
+        private final int hysteresis;
+        private final String state;
+        private final long stockVersion;
+
+        private AlertState(int threshold, int hysteresis, String state, long stockVersion) {
+            this.threshold = threshold;
+            this.hysteresis = hysteresis;
+            this.state = state;
+            this.stockVersion = stockVersion;
+        }
+
+        // Between the threshold and threshold + hysteresis the state is kept, except that
+        // a restocked OUT product becomes LOW rather than OK
+        private String next(int stock) {
+            if (stock <= 0) {
+                return OUT;
+            }
+            if (stock > threshold + hysteresis) {
+                return OK;
+            }
+            if (stock <= threshold) {
+                return LOW;
+            }
+            return OUT.equals(state) ? LOW : state;
+        }
+    }
+}
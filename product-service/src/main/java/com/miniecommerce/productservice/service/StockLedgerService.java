@@ -0,0 +1,163 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.StockBalance;
+import com.miniecommerce.productservice.entity.StockMovement;
+import com.miniecommerce.productservice.repository.StockMovementRepository;
+import com.miniecommerce.productservice.repository.StockSnapshotRepository;
+import com.miniecommerce.productservice.repository.StockTail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Append-only ledger of stock changes, next to the inventory row that enforces "never negative".
+// Movements are buffered per transaction and written with one batched INSERT just before commit,
+// while the transaction still holds the inventory row locks, so for any one product the movement
+// ids follow commit order. Balances are rebuilt from the latest snapshot plus the movements after it.
+@Service
+@Slf4j
+public class StockLedgerService implements SmartInitializingSingleton {
+
+    public static final String CREATED = "CREATED";
+    public static final String STOCK_UPDATE = "STOCK_UPDATE";
+    public static final String FLASH_SALE = "FLASH_SALE";
+    public static final String PRODUCT_UPDATE = "PRODUCT_UPDATE";
+    // Written by the import upsert itself (see ProductImportService)
+    public static final String IMPORT = "IMPORT";
+    // Written by the bulk update statement itself (see BulkUpdateService)
+    public static final String BULK_UPDATE = "BULK_UPDATE";
+
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO stock_movements (product_id, quantity, reason, created_at) VALUES (?, ?, ?, ?)";
+    private static final int MAX_MOVEMENTS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+
+    // Last rebuilt balance per product; only the movements after it are read next time
+    private final Map<Long, StockBalance> balances = new ConcurrentHashMap<>();
+
+    private final Counter movementsCounter;
+
+    public StockLedgerService(JdbcTemplate jdbcTemplate,
+                              StockMovementRepository stockMovementRepository,
+                              StockSnapshotRepository stockSnapshotRepository,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.movementsCounter = Counter.builder("product.stock.movements")
+                .description("Stock movements appended to the ledger")
+                .register(meterRegistry);
+    }
+
+    // After InventoryTableMigration, so stock copied from the old column gets its opening balance
+    @Override
+    public void afterSingletonsInstantiated() {
+        int seeded = stockSnapshotRepository.seedOpeningSnapshots();
+        if (seeded > 0) {
+            log.info("Took opening stock snapshots for {} products", seeded);
+        }
+    }
+
+    // Must run in the transaction that changed the inventory row
+    @SuppressWarnings("unchecked")
+    public void record(Long productId, int quantity, String reason) {
+        if (quantity == 0) {
+            return;
+        }
+        StockMovement movement = new StockMovement(null, productId, quantity, reason, LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(movement));
+            return;
+        }
+
+        List<StockMovement> pending = (List<StockMovement>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<StockMovement> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StockLedgerService.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(movement);
+    }
+
+    @Transactional(readOnly = true)
+    public StockBalance balance(Long productId) {
+        StockBalance base = balances.get(productId);
+        if (base == null) {
+            base = stockSnapshotRepository.findFirstByProductIdOrderByLastMovementIdDesc(productId)
+                    .map(snapshot -> new StockBalance(productId, snapshot.getStock(), snapshot.getLastMovementId()))
+                    .orElseGet(() -> new StockBalance(productId, 0, 0L));
+        }
+
+        StockTail tail = stockMovementRepository.sumAfter(productId, base.getLastMovementId());
+        StockBalance current = tail.getLastMovementId() == null
+                ? base
+                : new StockBalance(productId, base.getStock() + tail.getQuantity().intValue(), tail.getLastMovementId());
+        balances.merge(productId, current,
+                (known, rebuilt) -> rebuilt.getLastMovementId() >= known.getLastMovementId() ? rebuilt : known);
+        return current;
+    }
+
+    public List<StockMovement> movements(Long productId, int limit) {
+        return stockMovementRepository.findByProductIdOrderByIdDesc(productId,
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_MOVEMENTS))));
+    }
+
+    public void forget(Long productId) {
+        balances.remove(productId);
+    }
+
+    // Bounds how much of the ledger a rebuild has to read
+    @Scheduled(initialDelayString = "${product.stock-ledger.snapshot-interval-ms:300000}",
+            fixedDelayString = "${product.stock-ledger.snapshot-interval-ms:300000}")
+    public void takeSnapshots() {
+        try {
+            int snapshots = stockSnapshotRepository.snapshotChangedProducts();
+            if (snapshots > 0) {
+                log.info("Took stock snapshots for {} products", snapshots);
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to take stock snapshots: {}", e.getMessage());
+        }
+    }
+
+    private void insert(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT, movements, movements.size(), (ps, movement) -> {
+            ps.setLong(1, movement.getProductId());
+            ps.setInt(2, movement.getQuantity());
+            ps.setString(3, movement.getReason());
+            ps.setTimestamp(4, Timestamp.valueOf(movement.getCreatedAt()));
+        });
+        movementsCounter.increment(movements.size());
+    }
+}
@@ -0,0 +1,345 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.ReservationItemRequest;
+import com.miniecommerce.productservice.dto.ReservationRequest;
+import com.miniecommerce.productservice.dto.ReservationResponse;
+import com.miniecommerce.productservice.dto.StockUpdateRequest;
+import com.miniecommerce.productservice.entity.StockReservation;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.exception.ResourceNotFoundException;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import com.miniecommerce.productservice.repository.ProductSalesRepository;
+import com.miniecommerce.productservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Stock holds: reserving takes the stock right away (one short transaction), confirming
+// keeps it and releasing or expiring gives it back. No database lock is held in between.
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private static final String HELD = "HELD";
+    private static final String CONFIRMED = "CONFIRMED";
+    private static final String RELEASED = "RELEASED";
+    private static final String EXPIRED = "EXPIRED";
+    private static final String VOIDED = "VOIDED";
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductSalesRepository productSalesRepository;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultTtlSeconds;
+    private final int sweepBatchSize;
+
+    // In-memory expiry index of the holds created or loaded by this instance
+    private final DelayQueue<ExpiryEntry> expiryQueue = new DelayQueue<>();
+    private final Map<String, ExpiryEntry> heldReservations = new ConcurrentHashMap<>();
+
+    private final Counter expiredCounter;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   ProductService productService,
+                                   ProductRepository productRepository,
+                                   ProductSalesRepository productSalesRepository,
+                                   ProductSuggestionIndex productSuggestionIndex,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${product.reservation.default-ttl-seconds:600}") int defaultTtlSeconds,
+                                   @Value("${product.reservation.sweep-batch-size:200}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.productSalesRepository = productSalesRepository;
+        this.productSuggestionIndex = productSuggestionIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.sweepBatchSize = sweepBatchSize;
+
+        this.expiredCounter = Counter.builder("product.reservations.expired")
+                .description("Stock holds released by the expiry sweeper")
+                .register(meterRegistry);
+        Gauge.builder("product.reservations.held", heldReservations, Map::size)
+                .description("Stock holds currently tracked by the expiry index")
+                .register(meterRegistry);
+    }
+
+    public ReservationResponse reserve(ReservationRequest request) {
+        String reservationId = UUID.randomUUID().toString();
+        int ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+
+        // Merge duplicate lines so each product is held once
+        Map<Long, Integer> quantities = request.getItems().stream()
+                .collect(Collectors.toMap(ReservationItemRequest::getProductId,
+                        ReservationItemRequest::getQuantity, Integer::sum));
+
+        log.info("Reserving stock for {} products (reservation {}, TTL {}s)",
+                quantities.size(), reservationId, ttlSeconds);
+
+        List<StockReservation> lines = transactionTemplate.execute(status -> {
+            productService.updateStockBatch(toStockUpdates(quantities, -1));
+
+            List<StockReservation> reservations = new ArrayList<>();
+            quantities.forEach((productId, quantity) -> {
+                StockReservation reservation = new StockReservation();
+                reservation.setReservationId(reservationId);
+                reservation.setProductId(productId);
+                reservation.setQuantity(quantity);
+                reservation.setStatus(HELD);
+                reservation.setExpiresAt(expiresAt);
+                reservations.add(reservation);
+            });
+            return reservationRepository.saveAll(reservations);
+        });
+
+        track(reservationId, expiresAt);
+        return toResponse(reservationId, lines);
+    }
+
+    public ReservationResponse getReservation(String reservationId) {
+        List<StockReservation> lines = reservationRepository.findByReservationId(reservationId);
+        if (lines.isEmpty()) {
+            throw new ResourceNotFoundException("Reservation", "id", reservationId);
+        }
+        return toResponse(reservationId, lines);
+    }
+
+    // Confirming an expired hold takes the stock again if it is still available
+    public ReservationResponse confirm(String reservationId) {
+        log.info("Confirming reservation {}", reservationId);
+
+        List<StockReservation> lines = transactionTemplate.execute(status -> {
+            List<StockReservation> reservations = lockLines(reservationId);
+            List<StockReservation> active = active(reservations);
+            if (active.isEmpty()) {
+                return reservations;  // Every product of the hold was deleted
+            }
+            String current = active.get(0).getStatus();
+
+            if (EXPIRED.equals(current) || RELEASED.equals(current)) {
+                // Lines of products deleted since the hold ended are voided rather than taken again
+                active = voidMissingProducts(active);
+                productService.updateStockBatch(toStockUpdates(quantities(active), -1));
+            } else if (!HELD.equals(current)) {
+                return reservations;  // Already confirmed: idempotent
+            }
+
+            active.forEach(reservation -> reservation.setStatus(CONFIRMED));
+            reservationRepository.saveAll(reservations);
+            // Only confirmed holds count as sales; product order keeps the upserts deadlock-free
+            new TreeMap<>(quantities(active)).forEach((productId, quantity) -> {
+                productSalesRepository.addUnitsSold(productId, quantity);
+                productSuggestionIndex.recordSale(productId, quantity);
+            });
+            return reservations;
+        });
+
+        untrack(reservationId);
+        return toResponse(reservationId, lines);
+    }
+
+    public ReservationResponse release(String reservationId) {
+        log.info("Releasing reservation {}", reservationId);
+
+        List<StockReservation> lines = transactionTemplate.execute(status -> {
+            List<StockReservation> reservations = lockLines(reservationId);
+            List<StockReservation> active = active(reservations);
+            if (active.isEmpty()) {
+                return reservations;  // Every product of the hold was deleted
+            }
+            String current = active.get(0).getStatus();
+
+            if (CONFIRMED.equals(current)) {
+                throw new BadRequestException("Reservation " + reservationId + " is already confirmed");
+            }
+            if (!HELD.equals(current)) {
+                return reservations;  // Already released or expired: idempotent
+            }
+
+            productService.updateStockBatch(toStockUpdates(quantities(active), 1));
+            active.forEach(reservation -> reservation.setStatus(RELEASED));
+            reservationRepository.saveAll(reservations);
+            return reservations;
+        });
+
+        untrack(reservationId);
+        return toResponse(reservationId, lines);
+    }
+
+    // Releases up to a batch of expired holds from the in-memory index
+    @Scheduled(fixedDelayString = "${product.reservation.sweep-interval-ms:1000}")
+    public void sweepExpired() {
+        List<String> expired = new ArrayList<>();
+        ExpiryEntry entry;
+        while (expired.size() < sweepBatchSize && (entry = expiryQueue.poll()) != null) {
+            if (heldReservations.remove(entry.reservationId, entry)) {
+                expired.add(entry.reservationId);
+            }
+        }
+        expire(expired);
+    }
+
+    // Catches holds that no running instance indexed (e.g. the instance that made them crashed).
+    // Oldest first, so a hold that keeps failing cannot hide newer ones forever once it is voided
+    @Scheduled(fixedDelayString = "${product.reservation.db-sweep-interval-ms:60000}")
+    public void sweepExpiredFromDatabase() {
+        expire(reservationRepository.findExpiredReservationIds(LocalDateTime.now(),
+                PageRequest.of(0, sweepBatchSize)));
+    }
+
+    // Rebuild the expiry index from the holds still open in the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHeldReservations() {
+        List<StockReservation> held = reservationRepository.findByStatus(HELD);
+        held.forEach(reservation -> track(reservation.getReservationId(), reservation.getExpiresAt()));
+        log.info("Loaded {} held stock reservation lines into the expiry index", held.size());
+    }
+
+    // Each hold is expired in its own transaction so one failing hold does not roll back the others
+    private void expire(List<String> reservationIds) {
+        int expired = 0;
+        for (String reservationId : reservationIds) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(reservationId)))) {
+                    expired++;
+                }
+            } catch (Exception e) {
+                // Left HELD in the database; the database sweep tries it again
+                log.error("❌ Failed to release expired reservation {}: {}", reservationId, e.getMessage(), e);
+            }
+            heldReservations.remove(reservationId);
+        }
+
+        expiredCounter.increment(expired);
+        if (expired > 0) {
+            log.info("Released {} expired stock reservations", expired);
+        }
+    }
+
+    private boolean expire(String reservationId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> lines = reservationRepository.lockByReservationIds(List.of(reservationId)).stream()
+                .filter(reservation -> HELD.equals(reservation.getStatus()))
+                .filter(reservation -> reservation.getExpiresAt().isBefore(now))
+                .toList();
+        if (lines.isEmpty()) {
+            return false;
+        }
+
+        List<StockReservation> giveBack = voidMissingProducts(lines);
+        if (!giveBack.isEmpty()) {
+            productService.updateStockBatch(toStockUpdates(quantities(giveBack), 1));
+        }
+        giveBack.forEach(reservation -> reservation.setStatus(EXPIRED));
+        reservationRepository.saveAll(lines);
+        return true;
+    }
+
+    private List<StockReservation> lockLines(String reservationId) {
+        List<StockReservation> lines = reservationRepository.lockByReservationIds(List.of(reservationId));
+        if (lines.isEmpty()) {
+            throw new ResourceNotFoundException("Reservation", "id", reservationId);
+        }
+        return lines;
+    }
+
+    private List<StockReservation> active(List<StockReservation> lines) {
+        return lines.stream().filter(line -> !VOIDED.equals(line.getStatus())).toList();
+    }
+
+    // Marks lines whose product no longer exists as VOIDED and returns the others
+    private List<StockReservation> voidMissingProducts(List<StockReservation> lines) {
+        List<StockReservation> existing = new ArrayList<>();
+        for (StockReservation line : lines) {
+            if (productRepository.existsById(line.getProductId())) {
+                existing.add(line);
+            } else {
+                log.warn("⚠️ Voiding line of reservation {}: product {} no longer exists",
+                        line.getReservationId(), line.getProductId());
+                line.setStatus(VOIDED);
+            }
+        }
+        return existing;
+    }
+
+    private void track(String reservationId, LocalDateTime expiresAt) {
+        ExpiryEntry entry = new ExpiryEntry(reservationId,
+                expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (heldReservations.putIfAbsent(reservationId, entry) == null) {
+            expiryQueue.add(entry);
+        }
+    }
+
+    private void untrack(String reservationId) {
+        ExpiryEntry entry = heldReservations.remove(reservationId);
+        if (entry != null) {
+            expiryQueue.remove(entry);
+        }
+    }
+
+    private Map<Long, Integer> quantities(Collection<StockReservation> lines) {
+        return lines.stream().collect(Collectors.toMap(StockReservation::getProductId,
+                StockReservation::getQuantity, Integer::sum));
+    }
+
+    private List<StockUpdateRequest> toStockUpdates(Map<Long, Integer> quantities, int sign) {
+        return quantities.entrySet().stream()
+                .map(line -> new StockUpdateRequest(line.getKey(), sign * line.getValue()))
+                .toList();
+    }
+
+    private ReservationResponse toResponse(String reservationId, List<StockReservation> lines) {
+        List<ReservationItemRequest> items = lines.stream()
+                .map(line -> new ReservationItemRequest(line.getProductId(), line.getQuantity()))
+                .toList();
+        List<StockReservation> active = active(lines);
+        String status = active.isEmpty() ? VOIDED : active.get(0).getStatus();
+        return new ReservationResponse(reservationId, status, lines.get(0).getExpiresAt(), items);
+    }
+
+    private static final class ExpiryEntry implements Delayed {
+        private final String reservationId;
+        private final long expiresAtMillis;
+
+        private ExpiryEntry(String reservationId, long expiresAtMillis) {
+            this.reservationId = reservationId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.miniecommerce.productservice.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Stock pool split over several CAS counters so concurrent buyers rarely touch the same one.
+// Units sold are accumulated separately until they are flushed to the database.
+public class StripedStockCounter {
+
+    // Stripes are spaced one cache line (16 ints) apart to avoid false sharing
+    private static final int PADDING = 16;
+
+    private final int stripeCount;
+    private final AtomicIntegerArray stripes;
+    private final LongAdder pendingSold = new LongAdder();
+
+    public StripedStockCounter(int initialStock, int stripeCount) {
+        this.stripeCount = stripeCount;
+        this.stripes = new AtomicIntegerArray(stripeCount * PADDING);
+
+        int share = initialStock / stripeCount;
+        int remainder = initialStock % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    // Takes the quantity from one or more stripes; all or nothing
+    public boolean tryTake(int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+        int taken = 0;
+
+        for (int i = 0; i < stripeCount && taken < quantity; i++) {
+            int index = ((start + i) % stripeCount) * PADDING;
+            while (true) {
+                int available = stripes.get(index);
+                if (available == 0) {
+                    break;
+                }
+                int take = Math.min(available, quantity - taken);
+                if (stripes.compareAndSet(index, available, available - take)) {
+                    taken += take;
+                    break;
+                }
+            }
+        }
+
+        if (taken < quantity) {
+            add(taken);
+            return false;
+        }
+
+        pendingSold.add(quantity);
+        return true;
+    }
+
+    public void add(int quantity) {
+        if (quantity > 0) {
+            int index = ThreadLocalRandom.current().nextInt(stripeCount) * PADDING;
+            stripes.addAndGet(index, quantity);
+        }
+    }
+
+    // Gives back units that were taken but not sold (e.g. a rolled back batch)
+    public void giveBack(int quantity) {
+        add(quantity);
+        pendingSold.add(-quantity);
+    }
+
+    public int remaining() {
+        int total = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            total += stripes.get(i * PADDING);
+        }
+        return total;
+    }
+
+    public long pendingSold() {
+        return pendingSold.sum();
+    }
+
+    // Puts drained units back when they could not be written to the database
+    public void requeueSold(long quantity) {
+        pendingSold.add(quantity);
+    }
+
+    // Returns the units sold since the last drain
+    public long drainSold() {
+        return pendingSold.sumThenReset();
+    }
+}
@@ -0,0 +1,25 @@
+package com.miniecommerce.productservice.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Work that must only happen once the surrounding transaction has committed
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Runs the action after commit, or right away when no transaction is active
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
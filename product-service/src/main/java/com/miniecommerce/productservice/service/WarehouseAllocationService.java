@@ -0,0 +1,243 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.AllocationLine;
+import com.miniecommerce.productservice.dto.AllocationRequest;
+import com.miniecommerce.productservice.dto.AllocationResponse;
+import com.miniecommerce.productservice.entity.Warehouse;
+import com.miniecommerce.productservice.entity.WarehouseStock;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.exception.InsufficientStockException;
+import com.miniecommerce.productservice.exception.ResourceAlreadyExistsException;
+import com.miniecommerce.productservice.exception.ResourceNotFoundException;
+import com.miniecommerce.productservice.repository.InventoryLevel;
+import com.miniecommerce.productservice.repository.WarehouseRepository;
+import com.miniecommerce.productservice.repository.WarehouseStockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.miniecommerce.productservice.service.TransactionHooks.afterCommit;
+
+// Splits order quantities across warehouses. Plans are made on the in-memory availability index;
+// each product is then committed in its own transaction, in parallel with the other products.
+// If any product cannot be allocated, the products that did commit are given back. Allocations ship
+// units that were already sold, so they only leave warehouse_stock, never the sellable total
+// (see WarehouseStock).
+@Service
+@Slf4j
+public class WarehouseAllocationService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final WarehouseAvailabilityIndex availabilityIndex;
+    private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor allocationExecutor;
+    private final Map<String, AllocationStrategy> strategies;
+    private final String defaultStrategy;
+
+    private final Timer allocationTimer;
+    private final Counter staleIndexCounter;
+
+    public WarehouseAllocationService(WarehouseRepository warehouseRepository,
+                                      WarehouseStockRepository warehouseStockRepository,
+                                      WarehouseAvailabilityIndex availabilityIndex,
+                                      ProductService productService,
+                                      TransactionTemplate transactionTemplate,
+                                      @Qualifier("allocationExecutor") Executor allocationExecutor,
+                                      List<AllocationStrategy> strategies,
+                                      @Value("${product.allocation.default-strategy:cheapest}") String defaultStrategy,
+                                      MeterRegistry meterRegistry) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.productService = productService;
+        this.transactionTemplate = transactionTemplate;
+        this.allocationExecutor = allocationExecutor;
+        this.strategies = strategies.stream()
+                .collect(Collectors.toMap(AllocationStrategy::name, Function.identity()));
+        this.defaultStrategy = defaultStrategy;
+
+        this.allocationTimer = Timer.builder("product.allocation")
+                .description("Time to allocate an order across warehouses")
+                .register(meterRegistry);
+        this.staleIndexCounter = Counter.builder("product.allocation.stale.index")
+                .description("Allocation plans rejected by the database because the availability index was stale")
+                .register(meterRegistry);
+    }
+
+    public Warehouse createWarehouse(Warehouse warehouse) {
+        log.info("Creating warehouse: {}", warehouse.getCode());
+        if (warehouseRepository.existsByCode(warehouse.getCode())) {
+            throw new ResourceAlreadyExistsException("Warehouse", "code", warehouse.getCode());
+        }
+        Warehouse savedWarehouse = warehouseRepository.save(warehouse);
+        availabilityIndex.putWarehouse(savedWarehouse);
+        return savedWarehouse;
+    }
+
+    public List<Warehouse> getAllWarehouses() {
+        return warehouseRepository.findAll();
+    }
+
+    public List<WarehouseStock> getWarehouseStock(Long productId) {
+        productService.getProductById(productId);
+        return warehouseStockRepository.findByProductId(productId);
+    }
+
+    // Adds units to one warehouse and, unless they are already counted there (e.g. the stock a product
+    // was created with), to the product's sellable total
+    @Transactional
+    public List<WarehouseStock> restock(Long warehouseId, Long productId, int quantity, boolean addToTotal) {
+        log.info("Restocking product {} at warehouse {} by {} (add to total: {})",
+                productId, warehouseId, quantity, addToTotal);
+        if (quantity < 1) {
+            throw new BadRequestException("quantity must be at least 1");
+        }
+        warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse", "id", warehouseId));
+        productService.getProductById(productId);
+
+        InventoryLevel level = warehouseStockRepository.addStock(warehouseId, productId, quantity);
+        afterCommit(() -> availabilityIndex.update(productId, warehouseId, level.getStock(), level.getVersion()));
+        if (addToTotal) {
+            productService.updateStock(productId, quantity);
+        }
+        return warehouseStockRepository.findByProductId(productId);
+    }
+
+    public AllocationResponse allocate(AllocationRequest request) {
+        AllocationStrategy strategy = strategy(request.getStrategy());
+
+        // Merge duplicate lines so each product is allocated once
+        Map<Long, Integer> quantities = new TreeMap<>();
+        request.getItems().forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        log.info("Allocating {} products with the {} strategy", quantities.size(), strategy.name());
+
+        return allocationTimer.record(() -> {
+            // A full executor stops submission; whatever was submitted is still joined and given back
+            Map<Long, CompletableFuture<List<AllocationLine>>> futures = new LinkedHashMap<>();
+            RuntimeException failure = null;
+            for (Map.Entry<Long, Integer> item : quantities.entrySet()) {
+                try {
+                    futures.put(item.getKey(), CompletableFuture.supplyAsync(
+                            () -> allocateProduct(item.getKey(), item.getValue(), strategy, request), allocationExecutor));
+                } catch (TaskRejectedException e) {
+                    log.warn("⚠️ Allocation executor is full; abandoning allocation of {} products", quantities.size());
+                    failure = e;
+                    break;
+                }
+            }
+
+            List<AllocationLine> lines = new ArrayList<>();
+            for (CompletableFuture<List<AllocationLine>> future : futures.values()) {
+                try {
+                    lines.addAll(future.join());
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                release(lines);
+                throw failure;
+            }
+            return new AllocationResponse(strategy.name(), lines);
+        });
+    }
+
+    // Retried once with rows read from the database when the plan was made on stale availability
+    private List<AllocationLine> allocateProduct(Long productId, int quantity, AllocationStrategy strategy,
+                                                 AllocationRequest request) {
+        try {
+            return transactionTemplate.execute(status -> takeStock(productId, quantity, strategy, request, false));
+        } catch (StaleAvailabilityException e) {
+            staleIndexCounter.increment();
+            availabilityIndex.reload(productId, warehouseStockRepository.findByProductId(productId));
+            return transactionTemplate.execute(status -> takeStock(productId, quantity, strategy, request, true));
+        }
+    }
+
+    private List<AllocationLine> takeStock(Long productId, int quantity, AllocationStrategy strategy,
+                                           AllocationRequest request, boolean freshlyLoaded) {
+        List<WarehouseAvailability> candidates = availabilityIndex.candidates(productId);
+        int available = candidates.stream().mapToInt(WarehouseAvailability::getAvailable).sum();
+        if (available < quantity) {
+            if (!freshlyLoaded) {
+                throw new StaleAvailabilityException();
+            }
+            throw new InsufficientStockException(String.format(
+                    "Insufficient warehouse stock for product %d. Available: %d, Requested: %d",
+                    productId, available, quantity));
+        }
+
+        // Rows are updated in warehouse id order so concurrent allocations cannot deadlock
+        Map<Long, Integer> split = new TreeMap<>(strategy.split(quantity, candidates, request));
+        List<AllocationLine> lines = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : split.entrySet()) {
+            Long warehouseId = entry.getKey();
+            InventoryLevel level = warehouseStockRepository.adjustStock(warehouseId, productId, -entry.getValue())
+                    .orElseThrow(() -> freshlyLoaded
+                            ? new InsufficientStockException("Warehouse stock for product " + productId
+                                    + " changed during allocation; please retry")
+                            : new StaleAvailabilityException());
+            afterCommit(() -> availabilityIndex.update(productId, warehouseId, level.getStock(), level.getVersion()));
+            lines.add(new AllocationLine(productId, warehouseId, availabilityIndex.warehouse(warehouseId).getCode(),
+                    entry.getValue()));
+        }
+        // The order's reservation already took these units off the sellable total
+        return lines;
+    }
+
+    // Gives back what was taken for the products that committed before another product failed
+    private void release(List<AllocationLine> lines) {
+        Map<Long, List<AllocationLine>> byProduct = lines.stream()
+                .collect(Collectors.groupingBy(AllocationLine::getProductId, TreeMap::new, Collectors.toList()));
+        byProduct.forEach((productId, productLines) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (AllocationLine line : productLines) {
+                        InventoryLevel level = warehouseStockRepository.addStock(
+                                line.getWarehouseId(), productId, line.getQuantity());
+                        afterCommit(() -> availabilityIndex.update(productId, line.getWarehouseId(),
+                                level.getStock(), level.getVersion()));
+                    }
+                });
+            } catch (Exception e) {
+                log.error("❌ Failed to give back the allocation of product {}: {}", productId, e.getMessage());
+            }
+        });
+    }
+
+    private AllocationStrategy strategy(String name) {
+        AllocationStrategy strategy = strategies.get(name != null ? name : defaultStrategy);
+        if (strategy == null) {
+            throw new BadRequestException("strategy must be one of " + strategies.keySet());
+        }
+        return strategy;
+    }
+
+    // The index promised stock the database no longer has
+    private static class StaleAvailabilityException extends RuntimeException {
+    }
+}
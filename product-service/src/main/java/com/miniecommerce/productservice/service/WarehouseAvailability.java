@@ -0,0 +1,18 @@
+package com.miniecommerce.productservice.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// A warehouse and how many units of one product it has, as seen by the availability index
+@Data
+@AllArgsConstructor
+public class WarehouseAvailability {
+    private Long warehouseId;
+    private String code;
+    private Double latitude;
+    private Double longitude;
+    private BigDecimal shippingCost;
+    private int available;
+}
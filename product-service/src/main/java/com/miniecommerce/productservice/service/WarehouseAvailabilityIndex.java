@@ -0,0 +1,88 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.entity.Warehouse;
+import com.miniecommerce.productservice.entity.WarehouseStock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Units per warehouse for every product, kept in memory so allocation plans are made without
+// reading warehouse_stock. The database stays authoritative: a plan built on a stale entry is
+// rejected by the conditional update and the product's rows are reloaded.
+@Service
+@Slf4j
+public class WarehouseAvailabilityIndex {
+
+    private final Map<Long, Warehouse> warehouses = new ConcurrentHashMap<>();
+    // productId -> warehouseId -> level
+    private final Map<Long, Map<Long, Level>> levels = new ConcurrentHashMap<>();
+
+    public WarehouseAvailabilityIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("product.warehouse.index.products", levels, Map::size)
+                .description("Products with warehouse stock in the availability index")
+                .register(meterRegistry);
+    }
+
+    // Called once at startup by CatalogWarmup
+    public void load(List<Warehouse> warehouses, List<WarehouseStock> stock) {
+        warehouses.forEach(this::putWarehouse);
+        stock.forEach(row -> update(row.getProductId(), row.getWarehouseId(), row.getStock(), row.getVersion()));
+        log.info("Loaded {} warehouses and {} warehouse stock rows into the availability index",
+                warehouses.size(), stock.size());
+    }
+
+    public void putWarehouse(Warehouse warehouse) {
+        warehouses.put(warehouse.getId(), warehouse);
+    }
+
+    public Warehouse warehouse(Long warehouseId) {
+        return warehouses.get(warehouseId);
+    }
+
+    // Replaces what is known about a product with rows just read from the database
+    public void reload(Long productId, List<WarehouseStock> stock) {
+        Map<Long, Level> fresh = new ConcurrentHashMap<>();
+        stock.forEach(row -> fresh.put(row.getWarehouseId(), new Level(row.getStock(), row.getVersion())));
+        levels.put(productId, fresh);
+    }
+
+    // Updates arriving out of order are ignored
+    public void update(Long productId, Long warehouseId, int stock, Long version) {
+        levels.computeIfAbsent(productId, id -> new ConcurrentHashMap<>())
+                .merge(warehouseId, new Level(stock, version),
+                        (known, incoming) -> incoming.version >= known.version ? incoming : known);
+    }
+
+    public void removeProduct(Long productId) {
+        levels.remove(productId);
+    }
+
+    // Warehouses holding at least one unit of the product
+    public List<WarehouseAvailability> candidates(Long productId) {
+        List<WarehouseAvailability> candidates = new ArrayList<>();
+        levels.getOrDefault(productId, Map.of()).forEach((warehouseId, level) -> {
+            Warehouse warehouse = warehouses.get(warehouseId);
+            if (warehouse != null && level.stock > 0) {
+                candidates.add(new WarehouseAvailability(warehouse.getId(), warehouse.getCode(),
+                        warehouse.getLatitude(), warehouse.getLongitude(), warehouse.getShippingCost(), level.stock));
+            }
+        });
+        return candidates;
+    }
+
+    private static final class Level {
+        private final int stock;
+        private final long version;
+
+        private Level(int stock, Long version) {
+            this.stock = stock;
+            this.version = version != null ? version : 0L;
+        }
+    }
+}
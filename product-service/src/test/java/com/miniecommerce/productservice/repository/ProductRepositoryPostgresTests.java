@@ -0,0 +1,92 @@
+package com.miniecommerce.productservice.repository;
+
+import com.miniecommerce.productservice.PostgresTest;
+import com.miniecommerce.productservice.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The conditional native stock updates against the inventory table
+class ProductRepositoryPostgresTests extends PostgresTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void adjustStockAppliesTheDeltaAndBumpsTheStockVersion() {
+        Product product = save(10);
+
+        Optional<InventoryLevel> level = productRepository.adjustStock(product.getId(), -3);
+
+        assertThat(level).hasValueSatisfying(updated -> {
+            assertThat(updated.getStock()).isEqualTo(7);
+            assertThat(updated.getVersion()).isEqualTo(1L);
+            assertThat(updated.getDelta()).isEqualTo(-3);
+        });
+        assertThat(stock(product)).isEqualTo(7);
+    }
+
+    @Test
+    void adjustStockNeverGoesBelowZero() {
+        Product product = save(2);
+
+        assertThat(productRepository.adjustStock(product.getId(), -2)).isPresent();
+        assertThat(productRepository.adjustStock(product.getId(), -1)).isEmpty();
+        assertThat(stock(product)).isZero();
+    }
+
+    @Test
+    void adjustStockLeavesTheCatalogVersionAlone() {
+        Product product = save(5);
+
+        productRepository.adjustStock(product.getId(), 4);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class,
+                product.getId())).isEqualTo(product.getVersion());
+    }
+
+    @Test
+    void adjustStockOfAMissingProductReturnsNothing() {
+        assertThat(productRepository.adjustStock(-1L, 1)).isEmpty();
+    }
+
+    @Test
+    void setStockReturnsTheSignedDifference() {
+        Product product = save(10);
+
+        assertThat(productRepository.setStock(product.getId(), 4)).hasValueSatisfying(updated -> {
+            assertThat(updated.getStock()).isEqualTo(4);
+            assertThat(updated.getDelta()).isEqualTo(-6);
+        });
+    }
+
+    @Test
+    void setStockToTheCurrentValueChangesNothing() {
+        Product product = save(10);
+
+        assertThat(productRepository.setStock(product.getId(), 10)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM inventory WHERE product_id = ?", Long.class,
+                product.getId())).isZero();
+    }
+
+    private Integer stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM inventory WHERE product_id = ?", Integer.class,
+                product.getId());
+    }
+
+    private Product save(int stock) {
+        Product product = new Product();
+        product.setName("Desk Lamp");
+        product.setPrice(new BigDecimal("20.00"));
+        product.setStock(stock);
+        return productRepository.saveAndFlush(product);
+    }
+}
@@ -0,0 +1,164 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.PostgresTest;
+import com.miniecommerce.productservice.dto.BulkUpdateError;
+import com.miniecommerce.productservice.dto.BulkUpdateRequest;
+import com.miniecommerce.productservice.dto.BulkUpdateStatus;
+import com.miniecommerce.productservice.dto.CategoryPriceChange;
+import com.miniecommerce.productservice.dto.ProductChange;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.kafka.ProductStateProducer;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+// The set-based reprice, price and stock statements of bulk updates. Jobs run on the calling
+// thread, with chunks of two so keyset paging over a category is exercised.
+class BulkUpdatePostgresTests extends PostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private FlashSaleService flashSaleService;
+    private BulkUpdateService bulkUpdateService;
+
+    @BeforeEach
+    void createService() {
+        flashSaleService = new FlashSaleService(new SimpleMeterRegistry(), 4);
+        bulkUpdateService = new BulkUpdateService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                productRepository, mock(ProductCacheEvictor.class), flashSaleService,
+                mock(ProductStateProducer.class), mock(ProductFacetIndex.class), mock(CatalogSnapshotService.class),
+                mock(StockAlertService.class), Runnable::run, 2, 1000, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void aCategoryIsRepricedAcrossChunks() {
+        Product first = save("Kitchen", "10.00", 1);
+        Product second = save("Kitchen", "19.99", 1);
+        Product third = save("Kitchen", "5.00", 1);
+        Product office = save("Office", "10.00", 1);
+
+        BulkUpdateStatus status = submit(List.of(new CategoryPriceChange("Kitchen", new BigDecimal("10"))),
+                List.of());
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getProductsTotal()).isEqualTo(3);
+        assertThat(status.getProductsUpdated()).isEqualTo(3);
+        assertThat(price(first)).isEqualByComparingTo("11.00");
+        assertThat(price(second)).isEqualByComparingTo("21.99");
+        assertThat(price(third)).isEqualByComparingTo("5.50");
+        assertThat(price(office)).isEqualByComparingTo("10.00");
+        assertThat(catalogVersion(first)).isEqualTo(first.getVersion() + 1);
+    }
+
+    @Test
+    void pricesAndStockAreSetWithALedgerEntryForTheStockChange() {
+        Product product = save("Kitchen", "10.00", 10);
+
+        BulkUpdateStatus status = submit(List.of(),
+                List.of(new ProductChange(product.getId(), new BigDecimal("12.50"), 3)));
+
+        assertThat(status.getProductsUpdated()).isEqualTo(1);
+        assertThat(price(product)).isEqualByComparingTo("12.50");
+        assertThat(stock(product)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM stock_movements WHERE product_id = ? "
+                + "AND reason = ?", Integer.class, product.getId(), StockLedgerService.BULK_UPDATE)).isEqualTo(-7);
+    }
+
+    @Test
+    void unchangedValuesAreNotCountedOrRecorded() {
+        Product product = save("Kitchen", "10.00", 10);
+
+        BulkUpdateStatus status = submit(List.of(),
+                List.of(new ProductChange(product.getId(), new BigDecimal("10.00"), 10)));
+
+        assertThat(status.getProductsProcessed()).isEqualTo(1);
+        assertThat(status.getProductsUpdated()).isZero();
+        assertThat(catalogVersion(product)).isEqualTo(product.getVersion());
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM stock_movements WHERE product_id = ?",
+                Integer.class, product.getId())).isZero();
+    }
+
+    @Test
+    void laterChangesForTheSameProductWinFieldByField() {
+        Product product = save("Kitchen", "10.00", 10);
+
+        submit(List.of(), List.of(new ProductChange(product.getId(), new BigDecimal("12.00"), 4),
+                new ProductChange(product.getId(), null, 6)));
+
+        assertThat(price(product)).isEqualByComparingTo("12.00");
+        assertThat(stock(product)).isEqualTo(6);
+    }
+
+    @Test
+    void missingAndFlashSaleProductsAreReportedAndLeftAlone() {
+        Product onSale = save("Kitchen", "10.00", 10);
+        Product regular = save("Kitchen", "10.00", 10);
+        flashSaleService.start(onSale);
+
+        BulkUpdateStatus status = submit(List.of(), List.of(new ProductChange(-1L, null, 1),
+                new ProductChange(onSale.getId(), null, 1), new ProductChange(regular.getId(), null, 1)));
+
+        assertThat(status.getProductsFailed()).isEqualTo(2);
+        assertThat(status.getErrors()).extracting(BulkUpdateError::getProductId)
+                .containsExactlyInAnyOrder(-1L, onSale.getId());
+        assertThat(status.getProductsUpdated()).isEqualTo(1);
+        assertThat(stock(onSale)).isEqualTo(10);
+        assertThat(stock(regular)).isEqualTo(1);
+    }
+
+    @Test
+    void nullChangeListsAreRejected() {
+        assertThatThrownBy(() -> submit(null, List.of(new ProductChange(1L, null, 1))))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> submit(List.of(new CategoryPriceChange("Kitchen", BigDecimal.ONE)), null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private BulkUpdateStatus submit(List<CategoryPriceChange> categoryPriceChanges, List<ProductChange> productChanges) {
+        String jobId = bulkUpdateService.submit(new BulkUpdateRequest(categoryPriceChanges, productChanges)).getId();
+        return bulkUpdateService.getStatus(jobId);
+    }
+
+    private BigDecimal price(Product product) {
+        return jdbcTemplate.queryForObject("SELECT price FROM products WHERE id = ?", BigDecimal.class,
+                product.getId());
+    }
+
+    private Long catalogVersion(Product product) {
+        return jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class, product.getId());
+    }
+
+    private Integer stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM inventory WHERE product_id = ?", Integer.class,
+                product.getId());
+    }
+
+    private Product save(String category, String price, int stock) {
+        Product product = new Product();
+        product.setName("Product");
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        return productRepository.saveAndFlush(product);
+    }
+}
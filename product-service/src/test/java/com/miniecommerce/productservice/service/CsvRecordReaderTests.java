@@ -0,0 +1,70 @@
+package com.miniecommerce.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRecordReaderTests {
+
+    @Test
+    void fieldsAreSplitOnCommas() throws IOException {
+        CsvRecordReader reader = reader("sku,name,price\nA-1,Mouse,9.99\n");
+
+        assertThat(reader.next()).containsExactly("sku", "name", "price");
+        assertThat(reader.next()).containsExactly("A-1", "Mouse", "9.99");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        CsvRecordReader reader = reader("A-1,\"Mouse, wireless\",\"The \"\"silent\"\" one\"\n");
+
+        assertThat(reader.next()).containsExactly("A-1", "Mouse, wireless", "The \"silent\" one");
+    }
+
+    @Test
+    void quotedFieldsKeepLineBreaks() throws IOException {
+        CsvRecordReader reader = reader("A-1,\"First line\nSecond line\",9.99\nA-2,Keyboard,19.99\n");
+
+        assertThat(reader.next()).containsExactly("A-1", "First line\nSecond line", "9.99");
+        assertThat(reader.line()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("A-2", "Keyboard", "19.99");
+        assertThat(reader.line()).isEqualTo(3);
+    }
+
+    @Test
+    void crlfLineEndingsAreNotPartOfTheLastField() throws IOException {
+        CsvRecordReader reader = reader("sku,name\r\nA-1,Mouse\r\nA-2,Keyboard\r\n");
+
+        assertThat(reader.next()).containsExactly("sku", "name");
+        assertThat(reader.next()).containsExactly("A-1", "Mouse");
+        assertThat(reader.next()).containsExactly("A-2", "Keyboard");
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void emptyFieldsAndAMissingFinalNewlineAreRead() throws IOException {
+        CsvRecordReader reader = reader("A-1,,\"\",9.99");
+
+        assertThat(reader.next()).containsExactly("A-1", "", "", "9.99");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void blankLinesAreSingleEmptyRecords() throws IOException {
+        CsvRecordReader reader = reader("A-1,Mouse\n\nA-2,Keyboard\n");
+
+        assertThat(reader.next()).containsExactly("A-1", "Mouse");
+        assertThat(reader.next()).isEqualTo(List.of(""));
+        assertThat(reader.next()).containsExactly("A-2", "Keyboard");
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv));
+    }
+}
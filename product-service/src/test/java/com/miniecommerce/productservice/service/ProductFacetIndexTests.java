@@ -0,0 +1,118 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.ProductFacets;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductFacetIndexTests {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        index = new ProductFacetIndex(new BigDecimal[]{new BigDecimal("50"), new BigDecimal("25")});
+        index.load(List.of(
+                product(1L, "Kitchen", "10.00", 3, 0),
+                product(2L, "Kitchen", "30.00", 0, 0),
+                product(3L, "Office", "75.00", 1, 0),
+                product(4L, null, "25.00", 2, 0)));
+    }
+
+    @Test
+    void bandsAreSortedAndUncategorizedProductsAreCounted() {
+        ProductFacets facets = index.facets(null, null, null);
+
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getPriceBands()).containsExactly(Map.entry("0-25", 1L), Map.entry("25-50", 2L),
+                Map.entry("50+", 1L));
+        assertThat(facets.getCategories()).containsOnly(Map.entry("Kitchen", 2L), Map.entry("Office", 1L),
+                Map.entry(ProductFacetIndex.UNCATEGORIZED, 1L));
+        assertThat(facets.getAvailability()).containsOnly(Map.entry(ProductFacetIndex.IN_STOCK, 3L),
+                Map.entry(ProductFacetIndex.OUT_OF_STOCK, 1L));
+    }
+
+    @Test
+    void eachFacetIgnoresItsOwnFilter() {
+        ProductFacets facets = index.facets("Kitchen", null, true);
+
+        assertThat(facets.getTotal()).isEqualTo(1);
+        // Every category's in-stock products, not only Kitchen's
+        assertThat(facets.getCategories()).containsOnly(Map.entry("Kitchen", 1L), Map.entry("Office", 1L),
+                Map.entry(ProductFacetIndex.UNCATEGORIZED, 1L));
+        // Kitchen's products with and without stock
+        assertThat(facets.getAvailability()).containsOnly(Map.entry(ProductFacetIndex.IN_STOCK, 1L),
+                Map.entry(ProductFacetIndex.OUT_OF_STOCK, 1L));
+        assertThat(facets.getPriceBands()).containsEntry("0-25", 1L).containsEntry("25-50", 0L);
+    }
+
+    @Test
+    void anUpdateMovesTheProductToItsNewCombination() {
+        index.put(product(2L, "Office", "30.00", 5, 1));
+
+        ProductFacets facets = index.facets(null, null, null);
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getCategories()).containsEntry("Kitchen", 1L).containsEntry("Office", 2L);
+        assertThat(facets.getAvailability()).containsEntry(ProductFacetIndex.OUT_OF_STOCK, 0L);
+    }
+
+    @Test
+    void anOlderRevisionArrivingLateIsIgnored() {
+        index.put(product(1L, "Kitchen", "10.00", 0, 2));
+        index.put(product(1L, "Kitchen", "10.00", 3, 1));
+
+        assertThat(index.facets(null, null, null).getAvailability())
+                .containsEntry(ProductFacetIndex.OUT_OF_STOCK, 2L);
+    }
+
+    @Test
+    void removedProductsAreNoLongerCounted() {
+        index.remove(3L);
+
+        ProductFacets facets = index.facets(null, null, null);
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getCategories()).doesNotContainKey("Office");
+        assertThat(facets.getPriceBands()).containsEntry("50+", 0L);
+    }
+
+    @Test
+    void countsMoveOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(3L);
+            assertThat(index.facets(null, null, null).getTotal()).isEqualTo(4);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.facets(null, null, null).getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void unknownPriceBandsAreRejected() {
+        assertThatThrownBy(() -> index.facets(null, "10-20", null)).isInstanceOf(BadRequestException.class);
+    }
+
+    private static Product product(Long id, String category, String price, int stock, long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,170 @@
+package com.miniecommerce.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.productservice.PostgresTest;
+import com.miniecommerce.productservice.dto.ProductImportStatus;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.kafka.ProductEventProducer;
+import com.miniecommerce.productservice.kafka.ProductStateProducer;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// The staging table and the set-based merge into products, inventory and the stock ledger
+class ProductImportPostgresTests extends PostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private FlashSaleService flashSaleService;
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void createService() {
+        flashSaleService = new FlashSaleService(new SimpleMeterRegistry(), 4);
+        productImportService = new ProductImportService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), productRepository,
+                mock(ProductCacheEvictor.class), flashSaleService, mock(ProductEventProducer.class),
+                mock(ProductStateProducer.class), mock(ProductSuggestionIndex.class), mock(ProductFacetIndex.class),
+                mock(CatalogSnapshotService.class), mock(StockAlertService.class), 2, 100,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void newSkusAreCreatedWithStockAndALedgerEntry() throws IOException {
+        ProductImportStatus status = importCsv("sku,name,price,stock,category\n"
+                + "A-1,Mouse,9.99,5,Accessories\n"
+                + "A-2,Keyboard,19.99,0,Accessories\n"
+                + "A-3,Monitor,199.00,2,Displays\n");
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getRowsCreated()).isEqualTo(3);
+        assertThat(stock("A-1")).isEqualTo(5);
+        assertThat(stock("A-2")).isZero();
+        assertThat(stock("A-3")).isEqualTo(2);
+        // No ledger entry for a product created without stock
+        assertThat(ledger("A-1")).isEqualTo(5);
+        assertThat(ledgerEntries("A-2")).isZero();
+    }
+
+    @Test
+    void existingSkusAreUpdatedAndOnlyTheStockDifferenceIsRecorded() throws IOException {
+        Product existing = save("A-1", 10);
+
+        ProductImportStatus status = importCsv("sku,name,price,stock\nA-1,Mouse Pro,12.50,4\n");
+
+        assertThat(status.getRowsUpdated()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM products WHERE id = ?", String.class,
+                existing.getId())).isEqualTo("Mouse Pro");
+        assertThat(stock("A-1")).isEqualTo(4);
+        assertThat(ledger("A-1")).isEqualTo(-6);
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class,
+                existing.getId())).isEqualTo(existing.getVersion() + 1);
+    }
+
+    @Test
+    void unchangedStockLeavesInventoryAndLedgerAlone() throws IOException {
+        save("A-1", 10);
+
+        importCsv("sku,name,price,stock\nA-1,Mouse Pro,12.50,10\n");
+
+        assertThat(stock("A-1")).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject("SELECT i.version FROM inventory i JOIN products p "
+                + "ON p.id = i.product_id WHERE p.sku = 'A-1'", Long.class)).isZero();
+        assertThat(ledgerEntries("A-1")).isZero();
+    }
+
+    @Test
+    void theLastRowForASkuWins() throws IOException {
+        ProductImportStatus status = importCsv("sku,name,price,stock\n"
+                + "A-1,Mouse,9.99,5\n"
+                + "A-1,Mouse v2,9.99,7\n");
+
+        assertThat(status.getRowsCreated()).isEqualTo(1);
+        assertThat(stock("A-1")).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM products WHERE sku = 'A-1'", String.class))
+                .isEqualTo("Mouse v2");
+    }
+
+    @Test
+    void productsInAFlashSaleAreSkipped() throws IOException {
+        Product onSale = save("A-1", 10);
+        flashSaleService.start(onSale);
+
+        ProductImportStatus status = importCsv("sku,name,price,stock\nA-1,Mouse,9.99,3\nA-2,Keyboard,19.99,3\n");
+
+        assertThat(status.getRowsFailed()).isEqualTo(1);
+        assertThat(status.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getLine()).isEqualTo(2L));
+        assertThat(stock("A-1")).isEqualTo(10);
+        assertThat(stock("A-2")).isEqualTo(3);
+    }
+
+    @Test
+    void importedIdsDoNotCollideWithIdsHandedOutByHibernate() throws IOException {
+        importCsv("sku,name,price,stock\nA-1,Mouse,9.99,1\nA-2,Keyboard,19.99,1\nA-3,Monitor,199.00,1\n");
+        Product saved = save("A-4", 1);
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM products WHERE sku <> 'A-4'", Long.class))
+                .hasSize(3)
+                .doesNotContain(saved.getId());
+    }
+
+    private ProductImportStatus importCsv(String csv) throws IOException {
+        ProductImportStatus status = productImportService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImportService.TEXT_CSV,
+                started -> {
+                });
+        entityManager.clear();
+        return status;
+    }
+
+    private Integer stock(String sku) {
+        return jdbcTemplate.queryForObject("SELECT i.stock FROM inventory i JOIN products p "
+                + "ON p.id = i.product_id WHERE p.sku = ?", Integer.class, sku);
+    }
+
+    private Integer ledger(String sku) {
+        return jdbcTemplate.queryForObject("SELECT sum(m.quantity) FROM stock_movements m JOIN products p "
+                + "ON p.id = m.product_id WHERE p.sku = ? AND m.reason = ?", Integer.class, sku,
+                StockLedgerService.IMPORT);
+    }
+
+    private Integer ledgerEntries(String sku) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM stock_movements m JOIN products p "
+                + "ON p.id = m.product_id WHERE p.sku = ?", Integer.class, sku);
+    }
+
+    private Product save(String sku, int stock) {
+        Product product = new Product();
+        product.setSku(sku);
+        product.setName("Mouse");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStock(stock);
+        return productRepository.saveAndFlush(product);
+    }
+}
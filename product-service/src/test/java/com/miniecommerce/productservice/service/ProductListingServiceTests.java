@@ -0,0 +1,79 @@
+package com.miniecommerce.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ProductListingServiceTests {
+
+    private final ProductListingService productListingService =
+            new ProductListingService(mock(ProductRepository.class), new ObjectMapper());
+
+    @Test
+    void aCursorDecodesToTheKeysItWasEncodedFrom() {
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of("price", new BigDecimal("19.90"), "id", 42L));
+
+        String cursor = productListingService.encodeCursor("PRICE_ASC", position);
+        ScrollPosition decoded = productListingService.decodeCursor(cursor, "PRICE_ASC");
+
+        assertThat(decoded).isInstanceOfSatisfying(KeysetScrollPosition.class, keyset -> {
+            assertThat(keyset.scrollsForward()).isTrue();
+            assertThat(keyset.getKeys()).containsOnly(Map.entry("price", new BigDecimal("19.90")),
+                    Map.entry("id", 42L));
+        });
+    }
+
+    @Test
+    void namesWithAnyCharactersSurviveTheRoundTrip() {
+        String name = "Café \"Deluxe\", 50% off/+?";
+        String cursor = productListingService.encodeCursor("NAME_ASC",
+                ScrollPosition.forward(Map.of("name", name, "id", 7L)));
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(((KeysetScrollPosition) productListingService.decodeCursor(cursor, "NAME_ASC")).getKeys())
+                .containsEntry("name", name);
+    }
+
+    @Test
+    void aCursorIsOnlyValidForItsOwnSort() {
+        String cursor = productListingService.encodeCursor("NEWEST", ScrollPosition.forward(Map.of("id", 42L)));
+
+        assertThatThrownBy(() -> productListingService.decodeCursor(cursor, "PRICE_ASC"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("PRICE_ASC");
+    }
+
+    @Test
+    void garbageIsRejectedAsABadRequest() {
+        assertThatThrownBy(() -> productListingService.decodeCursor("not a cursor!", "NEWEST"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productListingService.decodeCursor(encode("{\"sort\":\"NEWEST\"}"), "NEWEST"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void tamperedKeysAreRejectedAsABadRequest() {
+        assertThatThrownBy(() -> productListingService.decodeCursor(
+                encode("{\"sort\":\"NEWEST\",\"keys\":{\"id\":\"abc\"}}"), "NEWEST"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productListingService.decodeCursor(
+                encode("{\"sort\":\"NEWEST\",\"keys\":{\"stock\":\"1\"}}"), "NEWEST"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
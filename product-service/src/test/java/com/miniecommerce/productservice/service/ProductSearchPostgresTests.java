@@ -0,0 +1,97 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.PostgresTest;
+import com.miniecommerce.productservice.dto.ProductSearchResult;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+// Full-text path of ProductSearchService: the generated search_vector, GIN index and ranking
+@Import({ProductSearchService.class, SimpleMeterRegistry.class})
+class ProductSearchPostgresTests extends PostgresTest {
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void createSearchIndex() {
+        productSearchService.createSearchIndex();
+    }
+
+    @Test
+    void everyWordMustMatchAsAPrefix() {
+        Product laptop = save("Gaming Laptop Pro", "Fast and light", "Computers");
+        save("Espresso Machine", "Makes coffee", "Kitchen");
+        save("Laptop Stand", "Aluminium stand", "Accessories");
+
+        ProductSearchResult result = productSearchService.search("gaming lapt", 0, 10);
+
+        assertThat(result.getResults()).extracting(Product::getId).containsExactly(laptop.getId());
+        assertThat(result.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        Product inDescription = save("Desk Lamp", "Pairs well with any laptop", "Office");
+        Product inName = save("Laptop Sleeve", "Protective cover", "Accessories");
+
+        ProductSearchResult result = productSearchService.search("laptop", 0, 10);
+
+        assertThat(result.getResults()).extracting(Product::getId)
+                .containsExactly(inName.getId(), inDescription.getId());
+    }
+
+    @Test
+    void categoryMatchesAreFound() {
+        Product kettle = save("Electric Kettle", "Boils water", "Kitchen");
+        save("Laptop Sleeve", "Protective cover", "Accessories");
+
+        ProductSearchResult result = productSearchService.search("kitch", 0, 10);
+
+        assertThat(result.getResults()).extracting(Product::getId).containsExactly(kettle.getId());
+    }
+
+    @Test
+    void pagesFollowTheRanking() {
+        Product first = save("Laptop Sleeve", "Protective cover", "Accessories");
+        Product second = save("Laptop Stand", "Aluminium stand", "Accessories");
+        Product third = save("Desk Lamp", "Pairs well with any laptop", "Office");
+
+        ProductSearchResult page0 = productSearchService.search("laptop", 0, 2);
+        ProductSearchResult page1 = productSearchService.search("laptop", 1, 2);
+
+        assertThat(page0.getResults()).extracting(Product::getId).containsExactly(first.getId(), second.getId());
+        assertThat(page1.getResults()).extracting(Product::getId).containsExactly(third.getId());
+        assertThat(page0.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void operatorsInTheKeywordDoNotBreakTheQuery() {
+        save("Laptop Sleeve", "Protective cover", "Accessories");
+
+        assertThatCode(() -> productSearchService.search("lapt!op & |(", 0, 10)).doesNotThrowAnyException();
+        assertThat(productSearchService.search("&& !!", 0, 10).getResults()).isEmpty();
+    }
+
+    private Product save(String name, String description, String category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        return productRepository.saveAndFlush(product);
+    }
+}
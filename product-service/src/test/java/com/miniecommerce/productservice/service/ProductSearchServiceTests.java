@@ -0,0 +1,33 @@
+package com.miniecommerce.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchServiceTests {
+
+    @Test
+    void everyWordBecomesAPrefixTerm() {
+        assertThat(ProductSearchService.toPrefixQuery("gaming lapt")).isEqualTo("gaming:* & lapt:*");
+    }
+
+    @Test
+    void caseAndExtraWhitespaceAreIgnored() {
+        assertThat(ProductSearchService.toPrefixQuery("  Gaming   LAPTOP ")).isEqualTo("gaming:* & laptop:*");
+    }
+
+    @Test
+    void tsQueryOperatorsInTheInputAreDropped() {
+        assertThat(ProductSearchService.toPrefixQuery("lap!top & |(mouse:*)")).isEqualTo("lap:* & top:* & mouse:*");
+    }
+
+    @Test
+    void inputWithoutLettersOrDigitsGivesAnEmptyQuery() {
+        assertThat(ProductSearchService.toPrefixQuery("&& !! :*")).isEmpty();
+    }
+
+    @Test
+    void nonAsciiLettersAndDigitsAreKept() {
+        assertThat(ProductSearchService.toPrefixQuery("Café 4K")).isEqualTo("café:* & 4k:*");
+    }
+}
@@ -0,0 +1,143 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.dto.ProductSuggestion;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.entity.ProductSales;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.repository.ProductSalesRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestionIndexTests {
+
+    private ProductSalesRepository productSalesRepository;
+    private ProductSuggestionIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        productSalesRepository = mock(ProductSalesRepository.class);
+        index = new ProductSuggestionIndex(productSalesRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void everyWordOfANameIsAPrefix() {
+        index.load(List.of(product(1L, "Gaming Laptop Pro", "Computers")));
+
+        assertThat(texts("gam")).containsExactly("Gaming Laptop Pro");
+        assertThat(texts("LAP")).containsExactly("Gaming Laptop Pro");
+        assertThat(texts("pro")).containsExactly("Gaming Laptop Pro");
+        assertThat(texts("aptop")).isEmpty();
+    }
+
+    @Test
+    void categoriesAreSuggestedWithTheirProducts() {
+        index.load(List.of(product(1L, "Espresso Machine", "Kitchen")));
+
+        assertThat(index.suggest("kit", 10)).singleElement().satisfies(suggestion -> {
+            assertThat(suggestion.getType()).isEqualTo("CATEGORY");
+            assertThat(suggestion.getProductId()).isNull();
+        });
+    }
+
+    @Test
+    void loadRanksByPersistedUnitsSold() {
+        when(productSalesRepository.findAll()).thenReturn(List.of(new ProductSales(2L, 30), new ProductSales(3L, 5)));
+
+        index.load(List.of(product(1L, "Laptop Bag", "Bags"), product(2L, "Laptop Stand", "Desk"),
+                product(3L, "Laptop Sleeve", "Bags")));
+
+        assertThat(texts("lap")).containsExactly("Laptop Stand", "Laptop Sleeve", "Laptop Bag");
+    }
+
+    @Test
+    void confirmedSalesRaiseTheProductAndItsCategory() {
+        index.load(List.of(product(1L, "Desk Lamp", "Lighting"), product(2L, "Desk Chair", "Furniture")));
+
+        index.recordSale(1L, 3);
+
+        assertThat(texts("desk")).containsExactly("Desk Lamp", "Desk Chair");
+        List<ProductSuggestion> categories = index.suggest("l", 10);
+        assertThat(categories).extracting(ProductSuggestion::getText).containsExactly("Desk Lamp", "Lighting");
+    }
+
+    @Test
+    void refreshPopularityPicksUpSalesFromOtherInstances() {
+        index.load(List.of(product(1L, "Laptop Bag", "Bags"), product(2L, "Laptop Stand", "Desk")));
+        assertThat(texts("lap")).containsExactly("Laptop Bag", "Laptop Stand");
+
+        when(productSalesRepository.findAll()).thenReturn(List.of(new ProductSales(2L, 4)));
+        index.refreshPopularity();
+
+        assertThat(texts("lap")).containsExactly("Laptop Stand", "Laptop Bag");
+    }
+
+    @Test
+    void renamesKeepPopularityAndDropTheOldName() {
+        when(productSalesRepository.findAll()).thenReturn(List.of(new ProductSales(1L, 10)));
+        index.load(List.of(product(1L, "Laptop Bag", "Bags"), product(2L, "Laptop Stand", "Desk")));
+
+        index.put(product(1L, "Laptop Backpack", "Bags"));
+
+        assertThat(texts("laptop b")).containsExactly("Laptop Backpack");
+        assertThat(texts("lap")).containsExactly("Laptop Backpack", "Laptop Stand");
+    }
+
+    @Test
+    void aCategoryIsDroppedWithItsLastProduct() {
+        index.load(List.of(product(1L, "Espresso Machine", "Kitchen")));
+
+        index.remove(1L);
+
+        assertThat(texts("esp")).isEmpty();
+        assertThat(texts("kit")).isEmpty();
+    }
+
+    @Test
+    void changesInsideATransactionShowUpOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.put(product(1L, "Espresso Machine", "Kitchen"));
+            assertThat(texts("esp")).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(texts("esp")).containsExactly("Espresso Machine");
+    }
+
+    @Test
+    void resultsAreCappedAtTheLimit() {
+        index.load(List.of(product(1L, "Cable A", null), product(2L, "Cable B", null), product(3L, "Cable C", null)));
+
+        assertThat(texts("cab", 2)).containsExactly("Cable A", "Cable B");
+        assertThatThrownBy(() -> index.suggest("cab", 0)).isInstanceOf(BadRequestException.class);
+    }
+
+    private List<String> texts(String prefix) {
+        return texts(prefix, ProductSuggestionIndex.MAX_SUGGESTIONS);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(ProductSuggestion::getText).toList();
+    }
+
+    private static Product product(Long id, String name, String category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        return product;
+    }
+}
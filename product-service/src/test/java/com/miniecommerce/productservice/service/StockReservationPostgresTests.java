@@ -0,0 +1,227 @@
+package com.miniecommerce.productservice.service;
+
+import com.miniecommerce.productservice.PostgresTest;
+import com.miniecommerce.productservice.dto.ReservationItemRequest;
+import com.miniecommerce.productservice.dto.ReservationRequest;
+import com.miniecommerce.productservice.dto.ReservationResponse;
+import com.miniecommerce.productservice.dto.StockUpdateRequest;
+import com.miniecommerce.productservice.entity.Product;
+import com.miniecommerce.productservice.entity.StockReservation;
+import com.miniecommerce.productservice.exception.BadRequestException;
+import com.miniecommerce.productservice.repository.ProductRepository;
+import com.miniecommerce.productservice.repository.ProductSalesRepository;
+import com.miniecommerce.productservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Hold, confirm, release and expiry against Postgres. Stock moves through the same conditional
+// update ProductService uses (adjustStock); the caches, events and indexes around it are left out.
+class StockReservationPostgresTests extends PostgresTest {
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void createService() {
+        ProductService productService = mock(ProductService.class);
+        doAnswer(invocation -> {
+            List<StockUpdateRequest> updates = invocation.getArgument(0);
+            for (StockUpdateRequest update : updates) {
+                productRepository.adjustStock(update.getProductId(), update.getQuantity())
+                        .orElseThrow(() -> new BadRequestException("Insufficient stock"));
+            }
+            return List.of();
+        }).when(productService).updateStockBatch(anyList());
+
+        stockReservationService = new StockReservationService(reservationRepository, productService,
+                productRepository, productSalesRepository, mock(ProductSuggestionIndex.class),
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), 600, 200);
+    }
+
+    @Test
+    void reservingTakesTheStockAndMergesDuplicateLines() {
+        Product product = save(10);
+
+        ReservationResponse reservation = reserve(item(product, 1), item(product, 2));
+
+        assertThat(reservation.getStatus()).isEqualTo("HELD");
+        assertThat(reservationRepository.findByReservationId(reservation.getReservationId()))
+                .singleElement()
+                .satisfies(line -> assertThat(line.getQuantity()).isEqualTo(3));
+        assertThat(stock(product)).isEqualTo(7);
+    }
+
+    @Test
+    void reservingMoreThanTheStockHoldsNothing() {
+        Product product = save(2);
+
+        assertThatThrownBy(() -> reserve(item(product, 3))).isInstanceOf(BadRequestException.class);
+
+        assertThat(stock(product)).isEqualTo(2);
+        assertThat(reservationRepository.findByStatus("HELD")).isEmpty();
+    }
+
+    @Test
+    void confirmingKeepsTheStockAndCountsTheSaleOnce() {
+        Product product = save(10);
+        String reservationId = reserve(item(product, 3)).getReservationId();
+
+        assertThat(stockReservationService.confirm(reservationId).getStatus()).isEqualTo("CONFIRMED");
+        assertThat(stockReservationService.confirm(reservationId).getStatus()).isEqualTo("CONFIRMED");
+
+        assertThat(stock(product)).isEqualTo(7);
+        assertThat(productSalesRepository.findById(product.getId()))
+                .hasValueSatisfying(sales -> assertThat(sales.getUnitsSold()).isEqualTo(3));
+    }
+
+    @Test
+    void releasingGivesTheStockBack() {
+        Product product = save(10);
+        String reservationId = reserve(item(product, 3)).getReservationId();
+
+        assertThat(stockReservationService.release(reservationId).getStatus()).isEqualTo("RELEASED");
+        assertThat(stockReservationService.release(reservationId).getStatus()).isEqualTo("RELEASED");
+
+        assertThat(stock(product)).isEqualTo(10);
+    }
+
+    @Test
+    void aConfirmedHoldCannotBeReleased() {
+        Product product = save(10);
+        String reservationId = reserve(item(product, 3)).getReservationId();
+        stockReservationService.confirm(reservationId);
+
+        assertThatThrownBy(() -> stockReservationService.release(reservationId))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(stock(product)).isEqualTo(7);
+    }
+
+    @Test
+    void theDatabaseSweepExpiresOverdueHoldsOnce() {
+        Product product = save(10);
+        String overdue = reserve(item(product, 3)).getReservationId();
+        String current = reserve(item(product, 2)).getReservationId();
+        expire(overdue);
+
+        stockReservationService.sweepExpiredFromDatabase();
+        stockReservationService.sweepExpiredFromDatabase();
+
+        assertThat(stockReservationService.getReservation(overdue).getStatus()).isEqualTo("EXPIRED");
+        assertThat(stockReservationService.getReservation(current).getStatus()).isEqualTo("HELD");
+        assertThat(stock(product)).isEqualTo(8);
+    }
+
+    @Test
+    void expiredHoldsAreFoundOldestFirst() {
+        Product product = save(10);
+        String newer = reserve(item(product, 1)).getReservationId();
+        String older = reserve(item(product, 1)).getReservationId();
+        String confirmed = reserve(item(product, 1)).getReservationId();
+        reserve(item(product, 1));
+        stockReservationService.confirm(confirmed);
+        expire(newer, LocalDateTime.now().minusMinutes(1));
+        expire(older, LocalDateTime.now().minusMinutes(5));
+        expire(confirmed, LocalDateTime.now().minusMinutes(10));
+
+        assertThat(reservationRepository.findExpiredReservationIds(LocalDateTime.now(), PageRequest.of(0, 10)))
+                .containsExactly(older, newer);
+    }
+
+    @Test
+    void confirmingAnExpiredHoldTakesTheStockAgain() {
+        Product product = save(10);
+        String reservationId = reserve(item(product, 3)).getReservationId();
+        expire(reservationId);
+        stockReservationService.sweepExpiredFromDatabase();
+
+        assertThat(stockReservationService.confirm(reservationId).getStatus()).isEqualTo("CONFIRMED");
+        assertThat(stock(product)).isEqualTo(7);
+    }
+
+    @Test
+    void deletingAProductVoidsOnlyItsHeldLines() {
+        Product deleted = save(10);
+        Product kept = save(10);
+        String held = reserve(item(deleted, 1), item(kept, 1)).getReservationId();
+        String confirmed = reserve(item(deleted, 2)).getReservationId();
+        stockReservationService.confirm(confirmed);
+
+        assertThat(reservationRepository.voidHeldForProduct(deleted.getId())).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(reservationRepository.findByReservationId(held))
+                .extracting(line -> line.getProductId().equals(deleted.getId()) ? "deleted" : "kept",
+                        StockReservation::getStatus)
+                .containsExactlyInAnyOrder(tuple("deleted", "VOIDED"),
+                        tuple("kept", "HELD"));
+        assertThat(stockReservationService.getReservation(confirmed).getStatus()).isEqualTo("CONFIRMED");
+    }
+
+    private ReservationResponse reserve(ReservationItemRequest... items) {
+        return stockReservationService.reserve(new ReservationRequest(List.of(items), null));
+    }
+
+    private void expire(String reservationId) {
+        expire(reservationId, LocalDateTime.now().minusSeconds(1));
+    }
+
+    // Moves the hold's deadline into the past; the sweep reads it back through JPA
+    private void expire(String reservationId, LocalDateTime expiresAt) {
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE reservation_id = ?", expiresAt,
+                reservationId);
+        entityManager.clear();
+    }
+
+    private Integer stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM inventory WHERE product_id = ?", Integer.class,
+                product.getId());
+    }
+
+    private static ReservationItemRequest item(Product product, int quantity) {
+        return new ReservationItemRequest(product.getId(), quantity);
+    }
+
+    private Product save(int stock) {
+        Product product = new Product();
+        product.setName("Desk Lamp");
+        product.setPrice(new BigDecimal("20.00"));
+        product.setStock(stock);
+        return productRepository.saveAndFlush(product);
+    }
+}
@@ -0,0 +1,93 @@
+package com.miniecommerce.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedStockCounterTests {
+
+    @Test
+    void stockIsSpreadOverTheStripesWithoutLosingUnits() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertThat(counter.remaining()).isEqualTo(10);
+    }
+
+    @Test
+    void aTakeCanSpanSeveralStripes() {
+        StripedStockCounter counter = new StripedStockCounter(8, 4);
+
+        assertThat(counter.tryTake(7)).isTrue();
+        assertThat(counter.remaining()).isEqualTo(1);
+        assertThat(counter.pendingSold()).isEqualTo(7);
+    }
+
+    @Test
+    void aTakeLargerThanTheStockTakesNothing() {
+        StripedStockCounter counter = new StripedStockCounter(5, 4);
+
+        assertThat(counter.tryTake(6)).isFalse();
+        assertThat(counter.remaining()).isEqualTo(5);
+        assertThat(counter.pendingSold()).isZero();
+    }
+
+    @Test
+    void giveBackReturnsUnitsThatWereNotSold() {
+        StripedStockCounter counter = new StripedStockCounter(5, 2);
+        counter.tryTake(3);
+
+        counter.giveBack(2);
+
+        assertThat(counter.remaining()).isEqualTo(4);
+        assertThat(counter.pendingSold()).isEqualTo(1);
+    }
+
+    @Test
+    void drainReturnsTheUnitsSoldSinceTheLastDrain() {
+        StripedStockCounter counter = new StripedStockCounter(10, 2);
+        counter.tryTake(2);
+        counter.tryTake(3);
+
+        assertThat(counter.drainSold()).isEqualTo(5);
+        assertThat(counter.drainSold()).isZero();
+
+        counter.requeueSold(5);
+        assertThat(counter.pendingSold()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(1000, 8);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                buyers.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        int quantity = j % 3 + 1;
+                        if (counter.tryTake(quantity)) {
+                            sold.addAndGet(quantity);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> buyer : buyers) {
+                buyer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(sold.get()).isLessThanOrEqualTo(1000);
+        assertThat(counter.remaining() + sold.get()).isEqualTo(1000);
+        assertThat(counter.pendingSold()).isEqualTo(sold.get());
+    }
+}
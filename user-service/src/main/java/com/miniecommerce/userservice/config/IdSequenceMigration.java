@@ -0,0 +1,36 @@
+package com.miniecommerce.userservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Users were created with an IDENTITY column before the switch to a pooled sequence;
+// the sequence is moved past the existing ids before the first insert.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceMigration {
+
+    // Table -> sequence of its @SequenceGenerator
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        // nextval only moves forward, so this is safe while other instances are inserting
+        SEQUENCES.forEach((table, sequence) -> jdbcTemplate.execute(
+                "DO $$ BEGIN "
+                        + "WHILE nextval('" + sequence + "') <= (SELECT coalesce(max(id), 0) FROM " + table + ") LOOP "
+                        + "NULL; END LOOP; END $$"));
+        log.info("Id sequences are past the existing user ids");
+    }
+}
@@ -0,0 +1,25 @@
+package com.miniecommerce.userservice.controller;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+// Strong ETags derived from @Version columns
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String forVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Changes whenever a row is added, removed, reordered or updated
+    static <T> String forList(List<T> items, Function<T, Object> id, Function<T, Long> version) {
+        StringBuilder state = new StringBuilder();
+        items.forEach(item -> state.append(id.apply(item)).append(':').append(version.apply(item)).append(';'));
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -5,10 +5,12 @@ import com.miniecommerce.userservice.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,15 +21,34 @@ class UserController {
     private final UserService userService;
 
     // GET /users - Get all users
+    // GET /users?ids=1,2,3 - Get several users in one call
+    // Both carry an ETag; If-None-Match gets 304 when no listed user changed
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) List<Long> ids,
+                                                  WebRequest request) {
+        List<User> users = ids != null ? userService.getUsersByIds(ids) : userService.getAllUsers();
+        String etag = ETags.forList(users, User::getId, User::getVersion);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(users);
     }
 
-    // GET /users/{id} - Get user by ID
+    // POST /users/batch - Get several users by IDs sent in the body (for large ID sets)
+    @PostMapping("/batch")
+    public ResponseEntity<List<User>> getUsersByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
+    // GET /users/{id} - Get user by ID (If-None-Match is checked against the version alone)
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<User> getUserById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.forVersion(userService.getUserVersion(id)))) {
+            return null;
+        }
+        User user = userService.getUserById(id);
+        return ResponseEntity.ok().eTag(ETags.forVersion(user.getVersion())).body(user);
     }
 
     // POST /users - Create new user
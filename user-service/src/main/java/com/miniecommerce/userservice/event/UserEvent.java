@@ -42,4 +42,15 @@ public class UserEvent implements Serializable {
                 .timestamp(LocalDateTime.now())
                 .build();
     }
+
+    public static UserEvent createUserDeletedEvent(Long userId, String userName, String email) {
+        return UserEvent.builder()
+                .eventId(java.util.UUID.randomUUID().toString())
+                .eventType("USER_DELETED")
+                .userId(userId)
+                .userName(userName)
+                .email(email)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.miniecommerce.userservice.service;
 
 import com.miniecommerce.userservice.entity.User;
 import com.miniecommerce.userservice.event.UserEvent;
+import com.miniecommerce.userservice.exception.BadRequestException;
 import com.miniecommerce.userservice.exception.ResourceAlreadyExistsException;
 import com.miniecommerce.userservice.exception.ResourceNotFoundException;
 import com.miniecommerce.userservice.kafka.UserEventProducer;
@@ -19,17 +20,33 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserEventProducer userEventProducer;
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     public List<User> getAllUsers() {
         log.info("Fetching all users");
         return userRepository.findAll();
     }
 
+    // Single IN query; unknown IDs are simply absent from the result
+    public List<User> getUsersByIds(List<Long> ids) {
+        log.info("Fetching {} users by id", ids.size());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " user IDs can be requested at once");
+        }
+        return userRepository.findAllById(ids.stream().distinct().toList());
+    }
+
     public User getUserById(Long id) {
         log.info("Fetching user with id: {}", id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
     }
 
+    public Long getUserVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    }
+
     public User createUser(User user) {
         log.info("Creating new user with email: {}", user.getEmail());
 
@@ -88,5 +105,14 @@ public class UserService {
         User user = getUserById(id);
         userRepository.delete(user);
         log.info("User deleted successfully");
+
+        // PUBLISH USER_DELETED EVENT
+        userEventProducer.sendUserEvent(
+                UserEvent.createUserDeletedEvent(
+                        user.getId(),
+                        user.getName(),
+                        user.getEmail()
+                )
+        );
     }
 }